@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Compares two k6-grpc-load.js summaries scenario by scenario.
+#
+#   ./k6-compare.sh baseline.json candidate.json [max-regression-percent]
+#
+# Exits non-zero when p99 latency grew or throughput dropped by more than the allowed percentage
+# (default 10) in any scenario present in both files.
+set -euo pipefail
+
+if [ $# -lt 2 ]; then
+    echo "usage: $0 <baseline.json> <candidate.json> [max-regression-percent]" >&2
+    exit 2
+fi
+
+BASELINE=$1
+CANDIDATE=$2
+MAX_REGRESSION=${3:-10}
+
+jq -r -n --slurpfile base "$BASELINE" --slurpfile cand "$CANDIDATE" --argjson max "$MAX_REGRESSION" '
+  def pct(a; b): if a == null or b == null or a == 0 then 0 else ((b - a) / a * 100) end;
+  ($base[0].scenarios) as $b | ($cand[0].scenarios) as $c
+  | [ $b | keys[] | select($c[.] != null)
+      | { name: .,
+          rps: pct($b[.].rps; $c[.].rps),
+          p99: pct($b[.].p99_ms; $c[.].p99_ms) } ] as $rows
+  | ($rows[] | "\(.name)\trps \(.rps | floor)%\tp99 \(.p99 | floor)%"),
+    (if any($rows[]; .rps < -$max or .p99 > $max) then "REGRESSION" else "OK" end)
+' | tee /dev/stderr | tail -n 1 | grep -q '^OK$'
@@ -0,0 +1,41 @@
+import grpc from 'k6/net/grpc';
+import {sleep} from 'k6';
+
+// Startup probe for startup-bench.sh: one long-lived process that parses hello.proto once, then
+// retries SayHello until it succeeds and prints the wall-clock time of that first success, so the
+// measured time-to-first-RPC does not include spawning a client and parsing the proto per attempt.
+//
+//   k6 run -q k6-first-rpc.js   # prints PROBING, then FIRST_RPC_MS=<epoch millis>
+
+const TARGET = __ENV.GRPC_TARGET || 'localhost:9000';
+const RETRY_SECONDS = Number(__ENV.RETRY_MS || 2) / 1000;
+
+const client = new grpc.Client();
+client.load(['src/main/proto'], 'hello.proto');
+
+export const options = {
+    scenarios: {
+        probe: {executor: 'per-vu-iterations', vus: 1, iterations: 1, maxDuration: __ENV.MAX_WAIT || '120s'},
+    },
+};
+
+export default function () {
+    console.log('PROBING');
+    while (true) {
+        let ok = false;
+        try {
+            client.connect(TARGET, {plaintext: true, timeout: '1s'});
+            const response = client.invoke('hello.HelloGrpc/SayHello', {name: 'startup'});
+            ok = response && response.status === grpc.StatusOK;
+        } catch (e) {
+            // not listening yet
+        } finally {
+            client.close();
+        }
+        if (ok) {
+            console.log(`FIRST_RPC_MS=${Date.now()}`);
+            return;
+        }
+        sleep(RETRY_SECONDS);
+    }
+}
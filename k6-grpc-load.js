@@ -0,0 +1,173 @@
+import grpc from 'k6/net/grpc';
+import {check} from 'k6';
+import exec from 'k6/execution';
+import {Counter} from 'k6/metrics';
+import {textSummary} from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+// Load-test matrix for hello.HelloGrpc/SayHello.
+//
+// Every combination of payload size x compression x connection count becomes its own
+// ramping-arrival-rate scenario; scenarios run one after another so their numbers don't mix.
+// All knobs come from environment variables, e.g.
+//
+//   k6 run -e RATE=2000 -e PAYLOAD_SIZES=16,4096 -e CONNECTIONS=1,8 -e STREAMS=32 k6-grpc-load.js
+//
+// k6 gives every VU its own gRPC client, and so its own HTTP/2 connection. A scenario runs exactly
+// `connections` VUs, and each iteration sends STREAMS calls at once over its VU's connection, so
+// at most `connections` x STREAMS calls are in flight. A VU closes its connection when its
+// scenario ends and opens a new one for the next, so every scenario holds the connection count
+// in its name. Needs k6 v0.50 or later for asyncInvoke.
+
+const TARGET = __ENV.GRPC_TARGET || 'localhost:9000';
+const PAYLOAD_SIZES = list(__ENV.PAYLOAD_SIZES || '16,1024,16384').map(Number);
+const COMPRESSIONS = list(__ENV.COMPRESSIONS || 'identity,gzip');
+const CONNECTIONS = list(__ENV.CONNECTIONS || '1,4').map(Number);
+const RATE = Number(__ENV.RATE || 500);
+// calls each VU multiplexes over its connection per iteration
+const STREAMS = Number(__ENV.STREAMS || 16);
+const RAMP = __ENV.RAMP || '10s';
+const DURATION = __ENV.DURATION || '30s';
+const PAUSE = __ENV.PAUSE || '5s';
+const P99_MS = Number(__ENV.P99_MS || 50);
+// share of the target arrivals that may be dropped because every VU was still busy
+const MAX_DROPPED = Number(__ENV.MAX_DROPPED || 0.01);
+const SUMMARY_FILE = __ENV.SUMMARY_FILE || 'target/k6-summary.json';
+
+const rpcs = new Counter('hello_rpcs');
+const client = new grpc.Client();
+client.load(['src/main/proto'], 'hello.proto');
+
+function list(value) {
+    return value.split(',').map((v) => v.trim()).filter((v) => v.length > 0);
+}
+
+function seconds(duration) {
+    const match = /^(\d+)(ms|s|m)$/.exec(duration);
+    const factor = {ms: 0.001, s: 1, m: 60}[match[2]];
+    return Number(match[1]) * factor;
+}
+
+// time a scenario spends at the full target rate, counting the linear ramp as half
+function activeSeconds() {
+    return seconds(RAMP) / 2 + seconds(DURATION);
+}
+
+function buildScenarios() {
+    const scenarios = {};
+    const thresholds = {};
+    const slot = seconds(RAMP) + seconds(DURATION) + seconds(PAUSE);
+    const expected = RATE * activeSeconds();
+    let index = 0;
+    for (const size of PAYLOAD_SIZES) {
+        for (const compression of COMPRESSIONS) {
+            for (const connections of CONNECTIONS) {
+                const name = `p${size}_${compression}_c${connections}`;
+                scenarios[name] = {
+                    executor: 'ramping-arrival-rate',
+                    exec: 'sayHello',
+                    startTime: `${index * slot}s`,
+                    startRate: 0,
+                    // RATE iterations per STREAMS seconds, each with STREAMS calls: RATE calls a second
+                    timeUnit: `${STREAMS}s`,
+                    // one k6 gRPC client, and therefore one HTTP/2 connection, per VU, and no more VUs
+                    preAllocatedVUs: connections,
+                    maxVUs: connections,
+                    stages: [
+                        {target: RATE, duration: RAMP},
+                        {target: RATE, duration: DURATION},
+                    ],
+                    env: {PAYLOAD_SIZE: String(size), COMPRESSION: compression, CONNECTIONS: String(connections)},
+                };
+                thresholds[`grpc_req_duration{scenario:${name}}`] = [`p(99)<${P99_MS}`];
+                // an arrival-rate executor drops iterations it has no free VU for, so this is the
+                // throughput gate: the server must sustain RATE with connections x STREAMS calls in
+                // flight
+                thresholds[`dropped_iterations{scenario:${name}}`] = [`count<=${Math.floor(expected / STREAMS * MAX_DROPPED)}`];
+                thresholds[`hello_rpcs{scenario:${name}}`] = ['count>0'];
+                thresholds[`checks{scenario:${name}}`] = ['rate>0.999'];
+                index++;
+            }
+        }
+    }
+    return {scenarios, thresholds};
+}
+
+const matrix = buildScenarios();
+
+export const options = {
+    scenarios: matrix.scenarios,
+    thresholds: matrix.thresholds,
+    summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(99)', 'p(99.9)', 'max'],
+};
+
+// scenario whose connection this VU holds, null when it holds none
+let connectedTo = null;
+
+export async function sayHello() {
+    const scenario = exec.scenario.name;
+    if (connectedTo !== scenario) {
+        if (connectedTo !== null) {
+            client.close();
+        }
+        client.connect(TARGET, {plaintext: true});
+        connectedTo = scenario;
+    }
+    const name = 'n'.repeat(Number(__ENV.PAYLOAD_SIZE));
+    const metadata = {'grpc-accept-encoding': __ENV.COMPRESSION};
+
+    const calls = [];
+    for (let i = 0; i < STREAMS; i++) {
+        calls.push(client.asyncInvoke('hello.HelloGrpc/SayHello', {name}, {metadata, discardResponseMessage: false}));
+    }
+    for (const response of await Promise.all(calls)) {
+        rpcs.add(1);
+        check(response, {
+            'status is OK': (r) => r && r.status === grpc.StatusOK,
+            'message is echoed': (r) => r && r.message && r.message.message.length === name.length + 7,
+        });
+    }
+
+    // at full rate a VU starts an iteration every `connections` x STREAMS / RATE seconds; once less
+    // than that is left, this was most likely its last one, so release the connection now rather
+    // than leave it open during the next scenarios (a late iteration simply reconnects)
+    const remaining = (1 - exec.scenario.progress) * (seconds(RAMP) + seconds(DURATION));
+    if (remaining < Number(__ENV.CONNECTIONS) * STREAMS / RATE) {
+        client.close();
+        connectedTo = null;
+    }
+}
+
+// Flat, stable JSON so two builds can be compared with k6-compare.sh (or plain diff/jq).
+export function handleSummary(data) {
+    const result = {
+        build: __ENV.BUILD_ID || null,
+        target: TARGET,
+        rate: RATE,
+        duration: DURATION,
+        scenarios: {},
+    };
+    for (const name of Object.keys(matrix.scenarios)) {
+        const latency = data.metrics[`grpc_req_duration{scenario:${name}}`];
+        const count = data.metrics[`hello_rpcs{scenario:${name}}`];
+        const checks = data.metrics[`checks{scenario:${name}}`];
+        const dropped = data.metrics[`dropped_iterations{scenario:${name}}`];
+        const requests = count ? count.values.count : 0;
+        result.scenarios[name] = {
+            // counter rates are averaged over the whole run, so derive the scenario's own rate
+            rps: requests / activeSeconds(),
+            requests,
+            dropped: dropped ? dropped.values.count : 0,
+            p50_ms: latency ? latency.values.med : null,
+            p90_ms: latency ? latency.values['p(90)'] : null,
+            p99_ms: latency ? latency.values['p(99)'] : null,
+            p999_ms: latency ? latency.values['p(99.9)'] : null,
+            check_rate: checks ? checks.values.rate : null,
+            thresholds_ok: [latency, count, checks, dropped].every((m) => !m || !m.thresholds
+                || Object.values(m.thresholds).every((t) => t.ok)),
+        };
+    }
+    return {
+        stdout: textSummary(data, {indent: ' ', enableColors: true}),
+        [SUMMARY_FILE]: JSON.stringify(result, null, 2),
+    };
+}
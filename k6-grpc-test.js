@@ -11,7 +11,7 @@ export const options = {
 
 export default function () {
     // Connect to the gRPC server
-    client.connect('localhost:8080', {
+    client.connect(__ENV.GRPC_TARGET || 'localhost:9000', {
         plaintext: true,
     });
 
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Builds a PGO-optimized native executable from a recorded SayHello workload.
+#
+#   ./native-pgo.sh
+#
+# 1. builds an instrumented executable (-Dpgo-instrument),
+# 2. drives it with k6-grpc-load.js (SayHello only, small payloads, identity and gzip),
+# 3. stops it so it writes its profile to default.iprof,
+# 4. rebuilds with -Dpgo, which passes --pgo=default.iprof to native-image.
+#
+# Profile-guided optimization requires Oracle GraalVM; GraalVM CE rejects --pgo-instrument.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+RUNNER=target/code-with-quarkus-1.0.0-SNAPSHOT-runner
+PROFILE=${PGO_PROFILE:-default.iprof}
+
+./mvnw -B -q package -DskipTests -Dnative -Dpgo-instrument
+rm -f default.iprof
+"./$RUNNER" > target/pgo-instrumented.log 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+started=false
+for _ in $(seq 1 "$((${STARTUP_TIMEOUT:-30} * 10))"); do
+    if grep -q "started in" target/pgo-instrumented.log; then
+        started=true
+        break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+        break
+    fi
+    sleep 0.1
+done
+if [ "$started" != true ]; then
+    echo "instrumented executable did not start, see target/pgo-instrumented.log" >&2
+    exit 1
+fi
+# k6 fails the run when a threshold is missed, which still leaves a usable profile
+k6 run -q -e BUILD_ID=pgo -e SUMMARY_FILE=target/pgo-k6.json \
+    -e PAYLOAD_SIZES="${PAYLOAD_SIZES:-16,1024}" -e COMPRESSIONS="${COMPRESSIONS:-identity,gzip}" \
+    -e CONNECTIONS="${CONNECTIONS:-1,4}" -e DURATION="${DURATION:-60s}" k6-grpc-load.js || true
+kill -TERM "$pid"
+wait "$pid" 2>/dev/null || true
+trap - EXIT
+if [ ! -s default.iprof ]; then
+    echo "no profile written to default.iprof, not building with -Dpgo" >&2
+    exit 1
+fi
+
+if [ "$PROFILE" != default.iprof ]; then
+    mv default.iprof "$PROFILE"
+fi
+./mvnw -B -q package -DskipTests -Dnative -Dpgo -Dpgo.profile="$(pwd)/$PROFILE"
+echo "PGO-optimized executable: $RUNNER (profile $PROFILE)"
@@ -0,0 +1,34 @@
+package org.acme;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import io.grpc.Codec;
+
+/**
+ * Codecs as the tests and benchmarks use them.
+ */
+final class TestCodecs {
+
+    private TestCodecs() {
+    }
+
+    /**
+     * @return every codec, including the dictionary ones primed with the seed dictionary from
+     *         {@code src/fixtures/resources}
+     */
+    static CompressionCodecs codecs() {
+        return new CompressionCodecs(TestConfigs.mapping(CompressionConfig.class,
+                Map.of("acme.grpc.compression.dictionaries.versions", "v1")));
+    }
+
+    static byte[] compress(Codec codec, byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = codec.compress(bytes)) {
+            out.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,34 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.quarkus.runtime.configuration.DurationConverter;
+
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+
+/**
+ * Builds config mappings outside of Quarkus so plain unit tests can construct beans directly.
+ *
+ * <p>Registers Quarkus' {@link DurationConverter} so durations accept the same shorthand
+ * ({@code 200ms}, {@code 10m}) as {@code application.properties}.
+ */
+final class TestConfigs {
+
+    private TestConfigs() {
+    }
+
+    static <T> T mapping(Class<T> type) {
+        return mapping(type, Map.of());
+    }
+
+    static <T> T mapping(Class<T> type, Map<String, String> properties) {
+        SmallRyeConfig config = new SmallRyeConfigBuilder()
+                .withMapping(type)
+                .withConverter(Duration.class, 100, new DurationConverter())
+                .withDefaultValues(properties)
+                .build();
+        return config.getConfigMapping(type);
+    }
+}
@@ -0,0 +1,117 @@
+package org.acme;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SayHello throughput through a {@link PooledChannel} of {@code poolSize} real HTTP/2 connections
+ * when {@link #CONCURRENCY} calls are kept in flight against a server that allows
+ * {@link #MAX_STREAMS} concurrent streams per connection and takes {@code serviceMicros} per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelPoolBenchmark {
+
+    static final int CONCURRENCY = 1000;
+    static final int MAX_STREAMS = 100;
+
+    @Param({ "1", "2", "4", "8" })
+    int poolSize;
+
+    @Param({ "500" })
+    long serviceMicros;
+
+    private ScheduledExecutorService delays;
+    private Server server;
+    private PooledChannel pool;
+    private HelloGrpcGrpc.HelloGrpcStub stub;
+    private HelloRequest request;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        delays = Executors.newScheduledThreadPool(4);
+        server = NettyServerBuilder.forPort(0)
+                .maxConcurrentCallsPerConnection(MAX_STREAMS)
+                .addService(new HelloGrpcGrpc.HelloGrpcImplBase() {
+                    @Override
+                    public void sayHello(HelloRequest request, StreamObserver<HelloReply> responseObserver) {
+                        delays.schedule(() -> {
+                            responseObserver.onNext(HelloGrpcService.greet(request.getName()));
+                            responseObserver.onCompleted();
+                        }, serviceMicros, TimeUnit.MICROSECONDS);
+                    }
+                })
+                .build()
+                .start();
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < poolSize; i++) {
+            channels.add(ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build());
+        }
+        pool = new PooledChannel(channels);
+        pool.warmup(Duration.ofSeconds(5));
+        stub = HelloGrpcGrpc.newStub(pool);
+        request = HelloRequest.newBuilder().setName("Neo").build();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pool.shutdown(Duration.ofSeconds(5));
+        server.shutdownNow().awaitTermination();
+        delays.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void sayHello() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(CONCURRENCY);
+        StreamObserver<HelloReply> observer = new StreamObserver<>() {
+            @Override
+            public void onNext(HelloReply value) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < CONCURRENCY; i++) {
+            stub.sayHello(request, observer);
+        }
+        done.await();
+    }
+}
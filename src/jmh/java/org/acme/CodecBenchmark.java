@@ -0,0 +1,75 @@
+package org.acme;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Codec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compress and decompress cost of each registered codec on serialized {@link HelloReply} payloads.
+ * {@code gzip-unpooled} is grpc-java's own gzip, for comparison with {@link PooledGzipCodec}; the
+ * {@code -hello-v1} codecs use the shared dictionary, which matters most at {@code nameLength=8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({ "identity", "gzip", "gzip-unpooled", "zstd", "lz4", "snappy", "zstd-hello-v1", "deflate-hello-v1" })
+    String encoding;
+
+    @Param({ "8", "256", "4096" })
+    int nameLength;
+
+    private Codec codec;
+    private byte[] payload;
+    private byte[] compressed;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = switch (encoding) {
+            case "identity" -> Codec.Identity.NONE;
+            case "gzip-unpooled" -> new Codec.Gzip();
+            default -> TestCodecs.codecs().get(encoding);
+        };
+        payload = HelloReply.newBuilder().setMessage("Hello " + "n".repeat(nameLength) + "!").build().toByteArray();
+        sink = new ByteArrayOutputStream(payload.length * 2);
+        compressed = compress();
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        sink.reset();
+        try (OutputStream out = codec.compress(sink)) {
+            out.write(payload);
+        }
+        return sink.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to complete {@link #IN_FLIGHT} concurrent calls whose handler blocks for
+ * {@code blockingMicros}, as a stand-in for JDBC or a legacy client, per {@link ExecutionConfig.Mode}.
+ *
+ * <p>Calls arrive on a pool sized like the Vert.x event loops; the worker pool is sized like the
+ * Quarkus default ({@code max(8 * cores, 200)}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    static final int IN_FLIGHT = 10_000;
+
+    @Param({ "event-loop", "worker", "virtual-thread" })
+    String mode;
+
+    @Param({ "1000" })
+    long blockingMicros;
+
+    private ExecutorService eventLoops;
+    private ExecutorService worker;
+    private ExecutorService virtualThreads;
+    private ExecutionDispatcher dispatcher;
+
+    @Setup
+    public void setup() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        eventLoops = Executors.newFixedThreadPool(2 * cores);
+        worker = Executors.newFixedThreadPool(Math.max(8 * cores, 200));
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        dispatcher = new ExecutionDispatcher(
+                TestConfigs.mapping(ExecutionConfig.class, Map.of("acme.grpc.execution.mode", mode)),
+                worker, virtualThreads, null, new GrpcMetrics());
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLoops.shutdownNow();
+        worker.shutdownNow();
+        virtualThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public void inFlightCalls() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(IN_FLIGHT);
+        long blockingNanos = TimeUnit.MICROSECONDS.toNanos(blockingMicros);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            eventLoops.execute(() -> dispatcher.dispatch("hello.HelloGrpc/SayHello", () -> {
+                LockSupport.parkNanos(blockingNanos);
+                return HelloGrpcService.greet("Neo");
+            }).subscribe().with(reply -> done.countDown(), failure -> done.countDown()));
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,69 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Drainable;
+import io.grpc.MethodDescriptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the service method itself, without any transport, and with serializing its reply the way
+ * the transport does. With the reply cache on every call is a hit, with it off every call computes
+ * and serializes the reply, as a miss would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HelloGrpcServiceBenchmark {
+
+    @Param({ "true", "false" })
+    String replyCache;
+
+    @Param({ "3", "1024" })
+    int nameLength;
+
+    private HelloGrpcService service;
+    private HelloRequest request;
+    private MethodDescriptor.Marshaller<HelloReply> marshaller;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        service = new HelloGrpcService(new ReplyCache(TestConfigs.mapping(ReplyCacheConfig.class,
+                Map.of("acme.grpc.reply-cache.enabled", replyCache))),
+                new ExecutionDispatcher(TestConfigs.mapping(ExecutionConfig.class), Runnable::run, Runnable::run, null, new GrpcMetrics()));
+        request = HelloRequest.newBuilder().setName("n".repeat(nameLength)).build();
+        marshaller = (MethodDescriptor.Marshaller<HelloReply>) service.bindService()
+                .getMethod(HelloGrpcGrpc.getSayHelloMethod().getFullMethodName())
+                .getMethodDescriptor()
+                .getResponseMarshaller();
+    }
+
+    @Benchmark
+    public HelloReply sayHello() {
+        return service.sayHello(request).await().indefinitely();
+    }
+
+    @Benchmark
+    public int sayHelloSerialized() throws IOException {
+        HelloReply reply = service.sayHello(request).await().indefinitely();
+        return ((Drainable) marshaller.stream(reply)).drainTo(OutputStream.nullOutputStream());
+    }
+}
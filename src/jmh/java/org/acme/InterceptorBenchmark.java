@@ -0,0 +1,165 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import jdk.jfr.Recording;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call overhead of each global {@link ServerInterceptor} around a unary {@code SayHello} that
+ * never touches a transport. Each call runs through half-close and completion, so interceptors
+ * that clean up there, like {@link GrpcDeadlineInterceptor} cancelling its deadline timer, pay for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    @Param({ "none", "log", "compression", "metrics", "limit", "tenant-quota", "deadline", "jfr-off", "jfr", "watchdog" })
+    String interceptor;
+
+    private ServerInterceptor subject;
+    private AccessLog accessLog;
+    private GrpcDeadlineInterceptor deadline;
+    private Recording recording;
+    private Metadata headers;
+    private HelloReply reply;
+    private final ServerCallHandler<HelloRequest, HelloReply> handler = (call, metadata) -> {
+        call.sendHeaders(new Metadata());
+        call.sendMessage(reply);
+        call.close(Status.OK, new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    };
+
+    @Setup
+    public void setup() {
+        headers = new Metadata();
+        headers.put(CompressionNegotiator.GRPC_ACCEPT_ENCODING_KEY, "gzip");
+        headers.put(Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER), "acme");
+        headers.put(Metadata.Key.of("grpc-timeout", Metadata.ASCII_STRING_MARSHALLER), "10S");
+        reply = HelloReply.newBuilder().setMessage("Hello Neo!").build();
+        subject = switch (interceptor) {
+            case "none" -> null;
+            case "log" -> {
+                accessLog = new AccessLog(TestConfigs.mapping(AccessLogConfig.class));
+                accessLog.start();
+                yield new GrpcLogInterceptor(accessLog);
+            }
+            case "compression" -> {
+                CompressionConfig config = TestConfigs.mapping(CompressionConfig.class, Map.of());
+                yield new GrpcCompressionInterceptor(config, new CompressionCodecs(config), new CpuLoad());
+            }
+            case "metrics" -> new GrpcMetricsInterceptor(new GrpcMetrics());
+            case "limit" -> new ConcurrencyLimitInterceptor(TestConfigs.mapping(ConcurrencyLimitConfig.class));
+            case "tenant-quota" -> {
+                // a rate high enough that every call is admitted and pays for the full decision
+                TenantQuotaConfig config = TestConfigs.mapping(TenantQuotaConfig.class, Map.of(
+                        "acme.grpc.tenant-quota.enabled", "true", "acme.grpc.tenant-quota.rate", "1e12"));
+                yield new TenantQuotaInterceptor(config, new TenantQuotas(config));
+            }
+            case "deadline" -> {
+                // every call schedules a deadline timer and cancels it on completion
+                deadline = new GrpcDeadlineInterceptor();
+                yield deadline;
+            }
+            case "jfr-off" -> {
+                GrpcJfr.setEnabled(false);
+                yield new GrpcJfrInterceptor();
+            }
+            case "jfr" -> {
+                // enabled and recorded: every call builds and commits an event
+                GrpcJfr.setEnabled(true);
+                recording = new Recording();
+                recording.enable("org.acme.grpc.Rpc").withoutThreshold();
+                recording.setToDisk(false);
+                recording.start();
+                yield new GrpcJfrInterceptor();
+            }
+            case "watchdog" -> {
+                // the benchmark thread stands in for the event loop, so every stage is published and
+                // accounted; the sampler thread is left out, it never runs on the call's thread
+                EventLoopWatchdog watchdog = new EventLoopWatchdog(TestConfigs.mapping(EventLoopWatchdogConfig.class),
+                        new GrpcMetrics(), () -> true);
+                yield new EventLoopWatchdogInterceptor(watchdog);
+            }
+            default -> throw new IllegalArgumentException(interceptor);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (accessLog != null) {
+            accessLog.stop();
+        }
+        if (deadline != null) {
+            deadline.stop();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        GrpcJfr.setEnabled(false);
+    }
+
+    @Benchmark
+    public ServerCall.Listener<HelloRequest> interceptCall() {
+        NoopServerCall call = new NoopServerCall();
+        ServerCall.Listener<HelloRequest> listener = subject == null
+                ? handler.startCall(call, headers)
+                : subject.interceptCall(call, headers, handler);
+        listener.onHalfClose();
+        listener.onComplete();
+        return listener;
+    }
+
+    static final class NoopServerCall extends ServerCall<HelloRequest, HelloReply> {
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(HelloReply message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public MethodDescriptor<HelloRequest, HelloReply> getMethodDescriptor() {
+            return HelloGrpcGrpc.getSayHelloMethod();
+        }
+    }
+}
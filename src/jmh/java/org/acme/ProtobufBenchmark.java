@@ -0,0 +1,93 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import io.grpc.Drainable;
+import io.grpc.MethodDescriptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link HelloRequest}/{@link HelloReply} serialization across name sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufBenchmark {
+
+    @Param({ "8", "256", "4096" })
+    int nameLength;
+
+    private HelloRequest request;
+    private byte[] requestBytes;
+    private String message;
+    private byte[] replyBytes;
+    private HelloReply reply;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private final MethodDescriptor.Marshaller<HelloReply> defaultMarshaller =
+            HelloGrpcGrpc.getSayHelloMethod().getResponseMarshaller();
+    private final MethodDescriptor.Marshaller<HelloReply> pooledMarshaller =
+            HelloMarshallers.pooled(HelloGrpcGrpc.getSayHelloMethod().getResponseMarshaller());
+
+    @Setup
+    public void setup() {
+        String name = "n".repeat(nameLength);
+        request = HelloRequest.newBuilder().setName(name).build();
+        requestBytes = request.toByteArray();
+        message = "Hello " + name + "!";
+        reply = HelloReply.newBuilder().setMessage(message).build();
+        replyBytes = reply.toByteArray();
+    }
+
+    @Benchmark
+    public int drainReplyDefaultMarshaller() throws IOException {
+        return drain(defaultMarshaller.stream(reply));
+    }
+
+    @Benchmark
+    public int drainReplyPooledMarshaller() throws IOException {
+        return drain(pooledMarshaller.stream(reply));
+    }
+
+    private int drain(InputStream stream) throws IOException {
+        return ((Drainable) stream).drainTo(sink);
+    }
+
+    @Benchmark
+    public HelloRequest parseRequest() throws InvalidProtocolBufferException {
+        return HelloRequest.parseFrom(requestBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() {
+        return request.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeReply() {
+        return HelloReply.newBuilder().setMessage(message).build().toByteArray();
+    }
+
+    @Benchmark
+    public HelloReply parseReply() throws InvalidProtocolBufferException {
+        return HelloReply.parseFrom(replyBytes);
+    }
+}
@@ -0,0 +1,59 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one {@link TenantQuotas} admission decision, lookup included, when calls are spread over
+ * {@code tenants} keys from several threads. With more tenants than {@code max-tenants} every
+ * lookup past the bound churns the cache, which is the worst case for a flood of unique keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TenantQuotaBenchmark {
+
+    @Param({ "1", "10000", "1000000" })
+    int tenants;
+
+    private TenantQuotas quotas;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        quotas = new TenantQuotas(TestConfigs.mapping(TenantQuotaConfig.class, Map.of(
+                "acme.grpc.tenant-quota.enabled", "true", "acme.grpc.tenant-quota.rate", "1e12")));
+        keys = new String[tenants];
+        for (int i = 0; i < tenants; i++) {
+            keys[i] = "tenant-" + i;
+        }
+    }
+
+    @Benchmark
+    public int acquireAndRelease() {
+        TenantQuotas.Tenant tenant = quotas.tenant(keys[ThreadLocalRandom.current().nextInt(tenants)]);
+        int decision = quotas.tryAcquire(tenant, System.nanoTime());
+        if (decision == TenantQuotas.ALLOWED) {
+            tenant.release();
+        }
+        return decision;
+    }
+}
@@ -0,0 +1,289 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.logging.Logger;
+
+import io.grpc.Metadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Bounded multi-producer ring buffer of access log records, drained by a single background thread.
+ *
+ * <p>Producers only claim a preallocated slot and copy references into it, so recording never
+ * formats strings or blocks the calling (usually event loop) thread. When the writer falls behind
+ * and the buffer is full the record is dropped and counted instead.
+ */
+@ApplicationScoped
+public class AccessLog {
+
+    private static final Logger LOG = Logger.getLogger("org.acme.access");
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final String[] headerNames;
+    private final Metadata.Key<byte[]>[] headerKeys;
+    private final double sampleRate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AccessLogConfig config;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private long head;
+    private long reportedDropped;
+    private Writer file;
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    @Inject
+    @SuppressWarnings("unchecked")
+    public AccessLog(AccessLogConfig config) {
+        this.config = config;
+        int capacity = Integer.highestOneBit(Math.max(2, config.bufferSize() - 1)) << 1;
+        this.mask = capacity - 1;
+        this.headerNames = config.headers().stream()
+                .filter(name -> !name.endsWith(Metadata.BINARY_HEADER_SUFFIX))
+                .toArray(String[]::new);
+        this.headerKeys = new Metadata.Key[headerNames.length];
+        for (int i = 0; i < headerNames.length; i++) {
+            headerKeys[i] = RawMetadataKeys.key(headerNames[i]);
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i, headerNames.length);
+        }
+        this.sampleRate = config.sampleRate();
+        this.batchSize = config.batchSize();
+        this.flushIntervalNanos = config.flushInterval().toNanos();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!config.enabled()) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "grpc-access-log");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    public boolean sample() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Copies the call outcome and the allow-listed headers into the next free slot.
+     *
+     * @return {@code false} if the buffer was full and the record was dropped
+     */
+    public boolean record(String method, int status, long startEpochMillis, long durationNanos, Metadata headers) {
+        long position;
+        Slot slot;
+        while (true) {
+            position = tail.get();
+            slot = slots[(int) position & mask];
+            long sequence = slot.sequence;
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                dropped.increment();
+                return false;
+            }
+        }
+        slot.method = method;
+        slot.status = status;
+        slot.startEpochMillis = startEpochMillis;
+        slot.durationNanos = durationNanos;
+        for (int i = 0; i < headerKeys.length; i++) {
+            slot.headerValues[i] = headers.get(headerKeys[i]);
+        }
+        slot.sequence = position + 1;
+        return true;
+    }
+
+    /**
+     * Appends up to {@code max} pending records to {@code out} as JSON lines. Must only be called
+     * from a single consumer thread.
+     *
+     * @return the number of records drained
+     */
+    int drainTo(StringBuilder out, int max) {
+        int drained = 0;
+        while (drained < max) {
+            Slot slot = slots[(int) head & mask];
+            if (slot.sequence != head + 1) {
+                break;
+            }
+            appendJson(out, slot);
+            slot.method = null;
+            Arrays.fill(slot.headerValues, null);
+            slot.sequence = head + slots.length;
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    private void run() {
+        try {
+            config.file().ifPresent(this::openFile);
+            while (running) {
+                if (flush() == 0) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+            }
+            while (flush() > 0) {
+                // drain whatever is left on shutdown
+            }
+        } catch (IOException e) {
+            LOG.errorf(e, "Access log writer stopped, %d records dropped so far", dropped());
+        } finally {
+            closeFile();
+        }
+    }
+
+    private int flush() throws IOException {
+        line.setLength(0);
+        int drained = drainTo(line, batchSize);
+        long droppedNow = dropped();
+        if (droppedNow != reportedDropped) {
+            line.append("{\"dropped\":").append(droppedNow).append("}\n");
+            reportedDropped = droppedNow;
+        }
+        if (line.length() == 0) {
+            return 0;
+        }
+        if (file != null) {
+            file.append(line);
+            file.flush();
+        } else {
+            line.setLength(line.length() - 1);
+            LOG.info(line);
+        }
+        return drained;
+    }
+
+    private void openFile(String path) {
+        try {
+            file = Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.errorf(e, "Unable to open access log file %s, logging to the console instead", path);
+        }
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOG.debug("Unable to close access log file", e);
+            }
+        }
+    }
+
+    private void appendJson(StringBuilder out, Slot slot) {
+        out.append("{\"ts\":").append(slot.startEpochMillis)
+                .append(",\"method\":");
+        appendString(out, slot.method);
+        out.append(",\"status\":").append(slot.status)
+                .append(",\"durationMicros\":").append(slot.durationNanos / 1000);
+        for (int i = 0; i < headerNames.length; i++) {
+            byte[] value = slot.headerValues[i];
+            if (value != null) {
+                out.append(',');
+                appendString(out, headerNames[i]);
+                out.append(':');
+                appendString(out, value);
+            }
+        }
+        out.append("}\n");
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            appendChar(out, value.charAt(i));
+        }
+        out.append('"');
+    }
+
+    private static void appendString(StringBuilder out, byte[] ascii) {
+        out.append('"');
+        for (byte b : ascii) {
+            appendChar(out, (char) (b & 0xff));
+        }
+        out.append('"');
+    }
+
+    private static void appendChar(StringBuilder out, char c) {
+        switch (c) {
+            case '"' -> out.append("\\\"");
+            case '\\' -> out.append("\\\\");
+            default -> {
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+    }
+
+    private static final class Slot {
+
+        volatile long sequence;
+        final byte[][] headerValues;
+        String method;
+        int status;
+        long startEpochMillis;
+        long durationNanos;
+
+        Slot(long sequence, int headers) {
+            this.sequence = sequence;
+            this.headerValues = new byte[headers][];
+        }
+    }
+}
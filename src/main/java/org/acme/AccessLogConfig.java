@@ -0,0 +1,51 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Structured gRPC access log written by {@link GrpcLogInterceptor}.
+ */
+@ConfigMapping(prefix = "acme.grpc.access-log")
+public interface AccessLogConfig {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Fraction of calls (0.0 - 1.0) that are logged.
+     */
+    @WithDefault("1.0")
+    double sampleRate();
+
+    /**
+     * Request headers copied into each record; everything else in the metadata is ignored.
+     */
+    @WithDefault("grpc-accept-encoding,user-agent")
+    List<String> headers();
+
+    /**
+     * Number of records the ring buffer holds, rounded up to a power of two. Records are dropped
+     * and counted when it is full.
+     */
+    @WithDefault("8192")
+    int bufferSize();
+
+    /**
+     * Maximum number of records written per flush.
+     */
+    @WithDefault("512")
+    int batchSize();
+
+    @WithDefault("200ms")
+    Duration flushInterval();
+
+    /**
+     * File the JSON lines are appended to; when absent they go to the {@code org.acme.access} logger.
+     */
+    Optional<String> file();
+}
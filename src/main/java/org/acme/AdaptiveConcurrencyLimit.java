@@ -0,0 +1,132 @@
+package org.acme;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style concurrency limit driven by observed round-trip times.
+ *
+ * <p>A long-term exponential average of the RTT serves as the no-load baseline. Each sample moves
+ * the limit towards {@code limit * gradient + sqrt(limit)}, where the gradient
+ * ({@code tolerance * longRtt / rtt}, capped to 0.5 - 1.0) drops below one as soon as calls get
+ * slower than the baseline, i.e. as soon as they start queueing. The square root term lets the
+ * limit probe upwards while latency stays flat.
+ *
+ * <p>Acquiring is a CAS on the in-flight counter against a volatile limit. Samples are folded in by
+ * whichever thread wins a flag; samples arriving during an update are dropped rather than waited on.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longAlpha;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+            int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longAlpha = 2.0 / (longWindow + 1);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share} of the limit are in flight.
+     */
+    public boolean tryAcquire(double share) {
+        int threshold = Math.max(1, (int) (limit * share));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= threshold) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases a slot and feeds the call's round-trip time into the limit.
+     */
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        if (rttNanos > 0 && updating.compareAndSet(false, true)) {
+            try {
+                sample(rttNanos, current);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    /**
+     * Releases a slot of a call that timed out or was shed downstream, backing the limit off.
+     */
+    public void releaseDropped() {
+        inFlight.decrementAndGet();
+        if (updating.compareAndSet(false, true)) {
+            try {
+                update(estimatedLimit * BACKOFF);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    /**
+     * Releases a slot without learning anything from the call.
+     */
+    public void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private void sample(long rtt, int inFlightAtRelease) {
+        if (longRtt == 0) {
+            longRtt = rtt;
+        } else {
+            longRtt += longAlpha * (rtt - longRtt);
+        }
+        if (longRtt / rtt > 2) {
+            // the baseline was taken under load; let it recover towards the current RTT
+            longRtt *= 0.95;
+        }
+        if (inFlightAtRelease * 2 < estimatedLimit) {
+            // not using the limit, so the sample says nothing about whether it should grow
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        update(estimatedLimit * gradient + Math.sqrt(estimatedLimit));
+    }
+
+    private void update(double target) {
+        double next = estimatedLimit * (1 - smoothing) + target * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
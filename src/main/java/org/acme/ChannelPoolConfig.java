@@ -0,0 +1,33 @@
+package org.acme;
+
+import java.time.Duration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Pool of connections to the hello service, see {@link HelloChannelPool}. Where and how to connect
+ * is read from {@code quarkus.grpc.clients.hello-service}.
+ */
+@ConfigMapping(prefix = "acme.grpc.channel-pool")
+public interface ChannelPoolConfig {
+
+    /**
+     * Whether to open the pool, connecting all of it at startup. Injecting
+     * {@link PooledGrpcClient} fails otherwise.
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Number of HTTP/2 connections, each with its own max-concurrent-streams budget.
+     */
+    @WithDefault("4")
+    int size();
+
+    /**
+     * How long startup waits for all connections to become ready.
+     */
+    @WithDefault("5s")
+    Duration warmupTimeout();
+}
@@ -0,0 +1,41 @@
+package org.acme;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Request compression policy applied by {@link GrpcClientCompressionInterceptor} to every gRPC client.
+ */
+@ConfigMapping(prefix = "acme.grpc.client-compression")
+public interface ClientCompressionConfig {
+
+    /**
+     * Codecs to compress requests with, most preferred first; {@code identity} alone disables
+     * request compression.
+     */
+    @WithDefault("gzip")
+    List<String> codecs();
+
+    /**
+     * Serialized requests smaller than this many bytes are sent uncompressed.
+     */
+    @WithDefault("1024")
+    int minMessageSize();
+
+    /**
+     * Overrides keyed by full method name, e.g. {@code "hello.HelloGrpc/SayHelloBatch"}.
+     */
+    Map<String, Method> methods();
+
+    interface Method {
+
+        Optional<List<String>> codecs();
+
+        OptionalInt minMessageSize();
+    }
+}
@@ -0,0 +1,145 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.logging.Logger;
+
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * The codecs known to this application and the gRPC registries built from them.
+ *
+ * <p>Every codec is registered for decompression, but only the ones listed in
+ * {@code acme.grpc.compression.codecs} are advertised in {@code grpc-accept-encoding} and
+ * considered for negotiation. Compressors are registered wrapped in {@link ProfiledCodec}.
+ *
+ * <p>The registries only reach the grpc-java transports: the gRPC clients and the separate gRPC
+ * server. The shared Vert.x HTTP server ({@code quarkus.grpc.server.use-separate-server=false})
+ * encodes responses itself and only knows gzip, so there the {@link #negotiator() negotiator} is
+ * limited to {@link #SHARED_SERVER_CODECS}, while clients still advertise every listed codec.
+ *
+ * <p>Each configured dictionary version adds a {@link ZstdCodec} and a
+ * {@link DeflateDictionaryCodec} named after it, e.g. {@code zstd-hello-v1}.
+ */
+@ApplicationScoped
+public class CompressionCodecs {
+
+    private static final Logger LOG = Logger.getLogger(CompressionCodecs.class);
+
+    /**
+     * Response codecs the shared Vert.x HTTP server can encode.
+     */
+    static final Set<String> SHARED_SERVER_CODECS = Set.of("gzip");
+
+    private final Map<String, Codec> codecs = new LinkedHashMap<>();
+    private final Set<String> dictionaryCodecs = new HashSet<>();
+    private final List<String> advertised;
+    private final CompressionNegotiator negotiator;
+
+    /**
+     * Codecs for grpc-java transports only, as used by plain unit tests and benchmarks.
+     */
+    public CompressionCodecs(CompressionConfig config) {
+        this(config, true);
+    }
+
+    @Inject
+    public CompressionCodecs(CompressionConfig config,
+            @ConfigProperty(name = "quarkus.grpc.server.use-separate-server", defaultValue = "true") boolean separateServer) {
+        CompressionConfig.Gzip gzip = config.gzip();
+        register(gzip.pooled() ? new PooledGzipCodec(gzip.level(), gzip.strategy().value(), gzip.poolSize()) : new Codec.Gzip());
+        register(new ZstdCodec(config.zstd().level(), config.zstd().dictionary().map(CompressionCodecs::load).orElse(null)));
+        register(new Lz4Codec());
+        register(new SnappyCodec());
+        CompressionConfig.Dictionaries dictionaries = config.dictionaries();
+        for (String version : dictionaries.versions().orElse(List.of())) {
+            String name = "hello-" + version;
+            String prefix = dictionaries.location() + "/" + name;
+            registerDictionary(new ZstdCodec("zstd-" + name, config.zstd().level(), load(prefix + ".zstd")));
+            registerDictionary(new DeflateDictionaryCodec("deflate-" + name, dictionaries.deflateLevel(),
+                    dictionaries.poolSize(), load(prefix + ".deflate")));
+        }
+        this.advertised = config.codecs().stream()
+                .filter(codecs::containsKey)
+                .toList();
+        List<String> negotiated = separateServer ? advertised : advertised.stream()
+                .filter(SHARED_SERVER_CODECS::contains)
+                .toList();
+        if (negotiated.size() < advertised.size()) {
+            LOG.warnf("The shared HTTP server can only compress responses with %s, not negotiating %s;"
+                    + " set quarkus.grpc.server.use-separate-server=true to use them",
+                    SHARED_SERVER_CODECS, advertised.stream().filter(codec -> !negotiated.contains(codec)).toList());
+        }
+        this.negotiator = new CompressionNegotiator(negotiated);
+    }
+
+    private void register(Codec codec) {
+        codecs.put(codec.getMessageEncoding(), codec);
+    }
+
+    private void registerDictionary(Codec codec) {
+        register(codec);
+        dictionaryCodecs.add(codec.getMessageEncoding());
+    }
+
+    /**
+     * @return whether the codec is primed with a shared dictionary
+     */
+    public boolean isDictionary(String encoding) {
+        return dictionaryCodecs.contains(encoding);
+    }
+
+    /**
+     * @return the negotiator for response codecs, limited to what the serving transport can encode
+     */
+    public CompressionNegotiator negotiator() {
+        return negotiator;
+    }
+
+    public Codec get(String encoding) {
+        return codecs.get(encoding);
+    }
+
+    public CompressorRegistry compressorRegistry() {
+        CompressorRegistry registry = CompressorRegistry.newEmptyInstance();
+        registry.register(Codec.Identity.NONE);
+        for (Codec codec : codecs.values()) {
+            registry.register(new ProfiledCodec(codec));
+        }
+        return registry;
+    }
+
+    public DecompressorRegistry decompressorRegistry() {
+        DecompressorRegistry registry = DecompressorRegistry.emptyInstance().with(Codec.Identity.NONE, false);
+        for (Codec codec : codecs.values()) {
+            registry = registry.with(codec, advertised.contains(codec.getMessageEncoding()));
+        }
+        return registry;
+    }
+
+    static byte[] load(String location) {
+        try (InputStream resource = Thread.currentThread().getContextClassLoader().getResourceAsStream(location)) {
+            if (resource != null) {
+                return resource.readAllBytes();
+            }
+            return Files.readAllBytes(Path.of(location));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load compression dictionary " + location, e);
+        }
+    }
+}
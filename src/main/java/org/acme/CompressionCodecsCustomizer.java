@@ -0,0 +1,53 @@
+package org.acme;
+
+import java.util.Map;
+
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.ServerBuilder;
+import io.quarkus.grpc.api.ChannelBuilderCustomizer;
+import io.quarkus.grpc.api.ServerBuilderCustomizer;
+import io.quarkus.grpc.runtime.config.GrpcClientConfiguration;
+import io.quarkus.grpc.runtime.config.GrpcServerConfiguration;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+
+/**
+ * Installs the {@link CompressionCodecs} registries on the gRPC server and on every gRPC client.
+ *
+ * <p>Only the grpc-java based transports accept custom registries; the shared Vert.x HTTP server
+ * ({@code quarkus.grpc.server.use-separate-server=false}) keeps its built-in gzip support.
+ *
+ * <p>Quarkus looks customizers up as {@code ServerBuilderCustomizer<?>} and
+ * {@code ChannelBuilderCustomizer<?>}, which a raw implementation never matches, and the builder
+ * type differs between transports, hence the type variables and, as CDI requires for them,
+ * {@link Dependent} scope.
+ */
+@Dependent
+public class CompressionCodecsCustomizer<S extends ServerBuilder<S>, C extends ManagedChannelBuilder<C>>
+        implements ServerBuilderCustomizer<S>, ChannelBuilderCustomizer<C> {
+
+    private final CompressionCodecs codecs;
+
+    @Inject
+    public CompressionCodecsCustomizer(CompressionCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    @Override
+    public void customize(GrpcServerConfiguration config, S builder) {
+        builder.compressorRegistry(codecs.compressorRegistry());
+        builder.decompressorRegistry(codecs.decompressorRegistry());
+    }
+
+    @Override
+    public Map<String, Object> customize(String name, GrpcClientConfiguration config, C builder) {
+        builder.compressorRegistry(codecs.compressorRegistry());
+        builder.decompressorRegistry(codecs.decompressorRegistry());
+        return Map.of();
+    }
+
+    @Override
+    public int priority() {
+        return 0;
+    }
+}
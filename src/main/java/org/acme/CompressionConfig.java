@@ -0,0 +1,132 @@
+package org.acme;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Response compression policy applied by {@link GrpcCompressionInterceptor}.
+ */
+@ConfigMapping(prefix = "acme.grpc.compression")
+public interface CompressionConfig {
+
+    /**
+     * Codecs to negotiate and advertise, most preferred first. All of {@code gzip}, {@code zstd},
+     * {@code lz4}, {@code snappy} and the {@link Dictionaries dictionary codecs} are registered for
+     * decompression regardless.
+     */
+    @WithDefault("gzip")
+    List<String> codecs();
+
+    /**
+     * Serialized messages smaller than this many bytes are sent uncompressed.
+     */
+    @WithDefault("1024")
+    int minMessageSize();
+
+    /**
+     * System CPU load (0.0 - 1.0) above which responses are sent uncompressed.
+     */
+    @WithDefault("0.85")
+    double maxCpuLoad();
+
+    Gzip gzip();
+
+    Zstd zstd();
+
+    Dictionaries dictionaries();
+
+    interface Gzip {
+
+        /**
+         * Reuse {@link Deflater}/{@link Inflater} contexts through {@link PooledGzipCodec}. Disable to
+         * fall back to grpc-java's allocate-per-message gzip when comparing the two under load.
+         */
+        @WithDefault("true")
+        boolean pooled();
+
+        /**
+         * Deflate level, 1 (fastest) to 9 (smallest), or -1 for the zlib default (6).
+         */
+        @WithDefault("-1")
+        int level();
+
+        @WithDefault("default")
+        Strategy strategy();
+
+        /**
+         * Idle contexts kept per direction, shared by all threads; extra contexts are ended on
+         * release.
+         */
+        @WithDefault("16")
+        int poolSize();
+
+        enum Strategy {
+            DEFAULT(Deflater.DEFAULT_STRATEGY),
+            FILTERED(Deflater.FILTERED),
+            HUFFMAN_ONLY(Deflater.HUFFMAN_ONLY);
+
+            private final int value;
+
+            Strategy(int value) {
+                this.value = value;
+            }
+
+            public int value() {
+                return value;
+            }
+        }
+    }
+
+    interface Zstd {
+
+        @WithDefault("3")
+        int level();
+
+        /**
+         * Classpath resource or file holding a trained dictionary shared with clients.
+         */
+        Optional<String> dictionary();
+    }
+
+    /**
+     * Shared dictionaries trained by {@code DictionaryTrainer}. Each version {@code <v>} is loaded
+     * from {@code dictionaries/hello-<v>.zstd} and {@code dictionaries/hello-<v>.deflate} and
+     * registered as the {@code zstd-hello-<v>} and {@code deflate-hello-<v>} codecs, so the
+     * dictionary in use is negotiated through {@code grpc-accept-encoding} like any other codec.
+     */
+    interface Dictionaries {
+
+        /**
+         * Dictionary versions to register; keep the previous one while clients roll over. None are
+         * shipped, so there is no default.
+         */
+        Optional<List<String>> versions();
+
+        /**
+         * Directory, on the classpath or the file system, holding the dictionary files.
+         */
+        @WithDefault("dictionaries")
+        String location();
+
+        /**
+         * Replaces {@code min-message-size} for dictionary codecs, which pay off on messages far
+         * smaller than the general-purpose ones do.
+         */
+        @WithDefault("8")
+        int minMessageSize();
+
+        @WithDefault("6")
+        int deflateLevel();
+
+        /**
+         * Idle deflate contexts kept per dictionary codec and direction, shared by all threads.
+         */
+        @WithDefault("16")
+        int poolSize();
+    }
+}
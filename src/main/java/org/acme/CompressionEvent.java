@@ -0,0 +1,27 @@
+package org.acme;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Compression of one message by a codec registered through {@link CompressionCodecs}.
+ */
+@Name("org.acme.grpc.Compression")
+@Label("gRPC Message Compression")
+@Category({ "Application", "gRPC" })
+class CompressionEvent extends Event {
+
+    @Label("Codec")
+    String codec;
+
+    @Label("Bytes In")
+    @DataAmount
+    long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    long bytesOut;
+}
@@ -0,0 +1,128 @@
+package org.acme;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import io.grpc.Metadata;
+
+/**
+ * Picks a message encoding from the {@code grpc-accept-encoding} values advertised by the peer.
+ *
+ * <p>The local preference order always wins over the order in which the peer lists its encodings,
+ * and {@code identity} is never selected since it means "no compression".
+ */
+public final class CompressionNegotiator {
+
+    static final String IDENTITY = "identity";
+
+    static final Metadata.Key<String> GRPC_ACCEPT_ENCODING_KEY =
+            Metadata.Key.of("grpc-accept-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    static final Metadata.Key<byte[]> GRPC_ACCEPT_ENCODING = RawMetadataKeys.key("grpc-accept-encoding");
+
+    private final List<String> preferred;
+    private final byte[][] preferredBytes;
+
+    public CompressionNegotiator(List<String> preferred) {
+        this.preferred = preferred.stream()
+                .map(codec -> codec.trim().toLowerCase(Locale.ROOT))
+                .filter(codec -> !codec.isEmpty() && !IDENTITY.equals(codec))
+                .distinct()
+                .toList();
+        this.preferredBytes = this.preferred.stream()
+                .map(codec -> codec.getBytes(StandardCharsets.US_ASCII))
+                .toArray(byte[][]::new);
+    }
+
+    public List<String> preferred() {
+        return preferred;
+    }
+
+    /**
+     * @return the most preferred codec the peer accepts, or {@code null} if there is none
+     */
+    public String select(Metadata headers) {
+        if (preferred.isEmpty()) {
+            return null;
+        }
+        Iterable<byte[]> values = headers.getAll(GRPC_ACCEPT_ENCODING);
+        if (values == null) {
+            return null;
+        }
+        String best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (byte[] value : values) {
+            int rank = bestRank(value, bestRank);
+            if (rank < bestRank) {
+                bestRank = rank;
+                best = preferred.get(rank);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the most preferred codec listed in a single {@code grpc-accept-encoding} value, or
+     *         {@code null} if there is none
+     */
+    public String select(String acceptEncoding) {
+        int rank = bestRank(acceptEncoding, Integer.MAX_VALUE);
+        return rank == Integer.MAX_VALUE ? null : preferred.get(rank);
+    }
+
+    private int bestRank(byte[] acceptEncoding, int bestRank) {
+        int start = 0;
+        int length = acceptEncoding.length;
+        while (start < length) {
+            int end = start;
+            while (end < length && acceptEncoding[end] != ',') {
+                end++;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && acceptEncoding[from] == ' ') {
+                from++;
+            }
+            while (to > from && acceptEncoding[to - 1] == ' ') {
+                to--;
+            }
+            for (int rank = 0; rank < bestRank && rank < preferredBytes.length; rank++) {
+                if (RawMetadataKeys.equalsIgnoreCase(acceptEncoding, from, to, preferredBytes[rank])) {
+                    bestRank = rank;
+                    break;
+                }
+            }
+            start = end + 1;
+        }
+        return bestRank;
+    }
+
+    private int bestRank(String acceptEncoding, int bestRank) {
+        int start = 0;
+        int length = acceptEncoding.length();
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && acceptEncoding.charAt(from) == ' ') {
+                from++;
+            }
+            while (to > from && acceptEncoding.charAt(to - 1) == ' ') {
+                to--;
+            }
+            for (int rank = 0; rank < bestRank && rank < preferred.size(); rank++) {
+                String codec = preferred.get(rank);
+                if (codec.length() == to - from && acceptEncoding.regionMatches(true, from, codec, 0, codec.length())) {
+                    bestRank = rank;
+                    break;
+                }
+            }
+            start = end + 1;
+        }
+        return bestRank;
+    }
+}
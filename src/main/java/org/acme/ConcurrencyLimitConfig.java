@@ -0,0 +1,80 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Adaptive per-method concurrency limits enforced by {@link ConcurrencyLimitInterceptor}.
+ */
+@ConfigMapping(prefix = "acme.grpc.concurrency-limit")
+public interface ConcurrencyLimitConfig {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    @WithDefault("100")
+    int initialLimit();
+
+    @WithDefault("8")
+    int minLimit();
+
+    @WithDefault("1000")
+    int maxLimit();
+
+    /**
+     * How much slower than the long-term average RTT a sample may be before the limit shrinks.
+     */
+    @WithDefault("2.0")
+    double rttTolerance();
+
+    /**
+     * Weight of each new sample in the limit, 0.0 - 1.0.
+     */
+    @WithDefault("0.2")
+    double smoothing();
+
+    /**
+     * Number of RTT samples averaged into the long-term baseline.
+     */
+    @WithDefault("600")
+    int longWindow();
+
+    /**
+     * Request header carrying the call's {@link Priority}; missing or unknown values mean {@code normal}.
+     */
+    @WithDefault("x-priority")
+    String priorityHeader();
+
+    /**
+     * Share of the limit that {@code normal} calls may fill; the rest is kept for {@code critical} ones.
+     */
+    @WithDefault("0.9")
+    double normalShare();
+
+    /**
+     * Share of the limit that {@code sheddable} calls may fill.
+     */
+    @WithDefault("0.5")
+    double sheddableShare();
+
+    /**
+     * Overrides keyed by full method name, e.g. {@code "hello.HelloGrpc/SayHelloBatch"}.
+     */
+    Map<String, Method> methods();
+
+    interface Method {
+
+        OptionalInt initialLimit();
+
+        OptionalInt maxLimit();
+    }
+
+    enum Priority {
+        CRITICAL,
+        NORMAL,
+        SHEDDABLE
+    }
+}
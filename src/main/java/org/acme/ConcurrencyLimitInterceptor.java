@@ -0,0 +1,178 @@
+package org.acme;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+import jakarta.inject.Inject;
+
+/**
+ * Sheds load with {@code RESOURCE_EXHAUSTED} once a method has more calls in flight than its
+ * {@link AdaptiveConcurrencyLimit} allows, so latency stays bounded under overload instead of every
+ * call queueing.
+ *
+ * <p>Calls tagged {@code sheddable} in the priority header are turned away first, then
+ * {@code normal} ones; {@code critical} calls may use the whole limit. Only unary calls that
+ * complete with {@code OK} contribute RTT samples.
+ *
+ * <p>It is the innermost admission interceptor, below {@link GrpcDeadlineInterceptor} and
+ * {@link TenantQuotaInterceptor}: calls those turn away never take a slot. Only calls dropped once
+ * the handler has started make the limit back off, so rejections by interceptors further in do
+ * not shrink it for every caller.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class ConcurrencyLimitInterceptor implements ServerInterceptor, Prioritized {
+
+    private static final byte[] CRITICAL = "critical".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHEDDABLE = "sheddable".getBytes(StandardCharsets.US_ASCII);
+
+    private final ConcurrencyLimitConfig config;
+    private final Metadata.Key<byte[]> priorityKey;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    @Inject
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitConfig config) {
+        this.config = config;
+        this.priorityKey = RawMetadataKeys.key(config.priorityHeader());
+    }
+
+    @Override
+    public int getPriority() {
+        return -300;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        if (!config.enabled()) {
+            return serverCallHandler.startCall(serverCall, metadata);
+        }
+        MethodDescriptor<ReqT, RespT> method = serverCall.getMethodDescriptor();
+        AdaptiveConcurrencyLimit limit = limit(method.getFullMethodName());
+        if (!limit.tryAcquire(share(priority(metadata)))) {
+            serverCall.close(Status.RESOURCE_EXHAUSTED.withDescription("Concurrency limit exceeded for " + method.getFullMethodName()),
+                    new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        LimitedServerCall<ReqT, RespT> call = new LimitedServerCall<>(serverCall, limit,
+                method.getType() == MethodDescriptor.MethodType.UNARY);
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = serverCallHandler.startCall(call, metadata);
+        } catch (RuntimeException e) {
+            call.release(Status.Code.UNKNOWN);
+            throw e;
+        }
+        call.started = true;
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                call.release(Status.Code.CANCELLED);
+                super.onCancel();
+            }
+        };
+    }
+
+    AdaptiveConcurrencyLimit limit(String fullMethodName) {
+        AdaptiveConcurrencyLimit limit = limits.get(fullMethodName);
+        return limit != null ? limit : limits.computeIfAbsent(fullMethodName, this::newLimit);
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String fullMethodName) {
+        ConcurrencyLimitConfig.Method method = config.methods().get(fullMethodName);
+        int initial = method != null ? method.initialLimit().orElse(config.initialLimit()) : config.initialLimit();
+        int max = method != null ? method.maxLimit().orElse(config.maxLimit()) : config.maxLimit();
+        return new AdaptiveConcurrencyLimit(initial, Math.min(config.minLimit(), max), max, config.rttTolerance(),
+                config.smoothing(), config.longWindow());
+    }
+
+    ConcurrencyLimitConfig.Priority priority(Metadata metadata) {
+        byte[] value = metadata.get(priorityKey);
+        if (value == null) {
+            return ConcurrencyLimitConfig.Priority.NORMAL;
+        }
+        if (RawMetadataKeys.equalsIgnoreCase(value, 0, value.length, CRITICAL)) {
+            return ConcurrencyLimitConfig.Priority.CRITICAL;
+        }
+        if (RawMetadataKeys.equalsIgnoreCase(value, 0, value.length, SHEDDABLE)) {
+            return ConcurrencyLimitConfig.Priority.SHEDDABLE;
+        }
+        return ConcurrencyLimitConfig.Priority.NORMAL;
+    }
+
+    private double share(ConcurrencyLimitConfig.Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> 1.0;
+            case NORMAL -> config.normalShare();
+            case SHEDDABLE -> config.sheddableShare();
+        };
+    }
+
+    void render(StringBuilder out) {
+        out.append("# TYPE grpc_server_concurrency_limit gauge\n");
+        limits.forEach((method, limit) -> GrpcMetrics.label(out.append("grpc_server_concurrency_limit{method=\""), method)
+                .append("\"} ").append(limit.limit()).append('\n'));
+        out.append("# TYPE grpc_server_concurrency_rejected_total counter\n");
+        limits.forEach((method, limit) -> GrpcMetrics.label(out.append("grpc_server_concurrency_rejected_total{method=\""), method)
+                .append("\"} ").append(limit.rejected()).append('\n'));
+    }
+
+    private static final class LimitedServerCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final boolean sampled;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        volatile boolean started;
+
+        LimitedServerCall(ServerCall<ReqT, RespT> delegate, AdaptiveConcurrencyLimit limit, boolean sampled) {
+            super(delegate);
+            this.limit = limit;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            release(status.getCode());
+            super.close(status, trailers);
+        }
+
+        void release(Status.Code code) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            switch (code) {
+                case OK -> {
+                    if (sampled) {
+                        limit.release(System.nanoTime() - startNanos);
+                    } else {
+                        limit.releaseIgnored();
+                    }
+                }
+                case DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, UNAVAILABLE -> {
+                    if (started) {
+                        limit.releaseDropped();
+                    } else {
+                        // rejected on the way in, says nothing about the handler's capacity
+                        limit.releaseIgnored();
+                    }
+                }
+                default -> limit.releaseIgnored();
+            }
+        }
+    }
+}
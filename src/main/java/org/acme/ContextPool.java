@@ -0,0 +1,64 @@
+package org.acme;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded pool of reusable compression contexts, or other per-call scratch state, shared by every
+ * thread.
+ *
+ * <p>Idle contexts sit in a fixed array of slots. Taking and returning one probes the slots from an
+ * index derived from the thread id, so platform threads mostly stay on their own slot, and virtual
+ * threads, which are new for every call, still find what earlier calls returned. At most
+ * {@code capacity} contexts are kept idle however many threads there are; the rest are handed to
+ * {@code discard} so their native memory is released right away.
+ */
+final class ContextPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final Consumer<T> discard;
+
+    ContextPool(int capacity, Consumer<T> discard) {
+        this.slots = new AtomicReferenceArray<>(Math.max(0, capacity));
+        this.discard = discard;
+    }
+
+    /**
+     * @return an idle context, or {@code null} if there is none
+     */
+    T poll() {
+        int length = slots.length();
+        int index = start(length);
+        for (int i = 0; i < length; i++) {
+            T context = slots.get(index);
+            if (context != null && slots.compareAndSet(index, context, null)) {
+                return context;
+            }
+            if (++index == length) {
+                index = 0;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keeps a reset context for reuse, or discards it if the pool is full.
+     */
+    void release(T context) {
+        int length = slots.length();
+        int index = start(length);
+        for (int i = 0; i < length; i++) {
+            if (slots.get(index) == null && slots.compareAndSet(index, null, context)) {
+                return;
+            }
+            if (++index == length) {
+                index = 0;
+            }
+        }
+        discard.accept(context);
+    }
+
+    private static int start(int length) {
+        return length == 0 ? 0 : (int) (Thread.currentThread().threadId() % length);
+    }
+}
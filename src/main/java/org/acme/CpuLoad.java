@@ -0,0 +1,45 @@
+package org.acme;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Cached view of the system CPU load.
+ *
+ * <p>Querying the MXBean reads from {@code /proc} on Linux, so the value is refreshed at most once
+ * per {@link #REFRESH_INTERVAL_NANOS} by whichever caller notices it is stale.
+ */
+@ApplicationScoped
+public class CpuLoad {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private final AtomicLong lastSample = new AtomicLong(System.nanoTime() - REFRESH_INTERVAL_NANOS);
+    private volatile double load;
+
+    /**
+     * @return the recent system CPU load between 0.0 and 1.0, or 0.0 if the platform does not report it
+     */
+    public double get() {
+        long now = System.nanoTime();
+        long last = lastSample.get();
+        if (now - last >= REFRESH_INTERVAL_NANOS && lastSample.compareAndSet(last, now)) {
+            load = sample();
+        }
+        return load;
+    }
+
+    private double sample() {
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            double cpu = sunOs.getCpuLoad();
+            return cpu < 0 ? 0.0 : cpu;
+        }
+        double average = os.getSystemLoadAverage();
+        return average < 0 ? 0.0 : Math.min(1.0, average / os.getAvailableProcessors());
+    }
+}
@@ -0,0 +1,111 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import io.grpc.Codec;
+
+/**
+ * Raw deflate primed with a preset dictionary both peers load from the same versioned resource.
+ *
+ * <p>There is no zlib or gzip framing, so a message costs only its deflate blocks: a short
+ * {@link HelloReply} whose greeting is in the dictionary compresses to fewer bytes than it
+ * serializes to, which gzip's 18 bytes of header and trailer never allow. The dictionary version
+ * is part of the encoding name, so peers holding different dictionaries never negotiate it.
+ *
+ * <p>Idle {@link Deflater}s and {@link Inflater}s are reset and kept in a bounded
+ * {@link ContextPool} shared by all threads, like {@link PooledGzipCodec} does.
+ */
+public final class DeflateDictionaryCodec implements Codec {
+
+    private static final int BUFFER_SIZE = 512;
+
+    private final String encoding;
+    private final int level;
+    private final byte[] dictionary;
+    private final ContextPool<Deflater> deflaters;
+    private final ContextPool<Inflater> inflaters;
+
+    public DeflateDictionaryCodec(String encoding, int level, int poolSize, byte[] dictionary) {
+        if (dictionary.length == 0) {
+            throw new IllegalArgumentException("Empty deflate dictionary for " + encoding);
+        }
+        this.encoding = encoding;
+        this.level = level;
+        this.dictionary = dictionary;
+        this.deflaters = new ContextPool<>(poolSize, Deflater::end);
+        this.inflaters = new ContextPool<>(poolSize, Inflater::end);
+    }
+
+    @Override
+    public String getMessageEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        deflater.setDictionary(dictionary);
+        Deflater owned = deflater;
+        return new DeflaterOutputStream(os, owned, BUFFER_SIZE) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    release(owned);
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        inflater.setDictionary(dictionary);
+        Inflater owned = inflater;
+        return new InflaterInputStream(is, owned, BUFFER_SIZE) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    release(owned);
+                }
+            }
+        };
+    }
+
+    private void release(Deflater deflater) {
+        deflater.reset();
+        deflaters.release(deflater);
+    }
+
+    private void release(Inflater inflater) {
+        inflater.reset();
+        inflaters.release(inflater);
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme;
+
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor that hands tasks to a delegate pool in order of their deadline, earliest first.
+ *
+ * <p>Every submitted task is parked in a priority queue and a "run the most urgent task" token is
+ * submitted to the delegate instead. While the delegate has idle threads this behaves like the
+ * delegate; once it is saturated, the tokens queue up in the delegate and each one picks whatever
+ * is most urgent by the time a thread frees up. Tasks without a deadline run after all tasks with
+ * one, in submission order.
+ */
+public final class EarliestDeadlineFirstExecutor implements Executor {
+
+    private static final Comparator<Task> ORDER = (a, b) -> {
+        if (a.hasDeadline != b.hasDeadline) {
+            return a.hasDeadline ? -1 : 1;
+        }
+        if (a.hasDeadline && a.deadlineNanos != b.deadlineNanos) {
+            return a.deadlineNanos - b.deadlineNanos < 0 ? -1 : 1;
+        }
+        return Long.compare(a.sequence, b.sequence);
+    };
+
+    private final Executor delegate;
+    private final PriorityBlockingQueue<Task> queue = new PriorityBlockingQueue<>(64, ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public EarliestDeadlineFirstExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submit(false, 0, command);
+    }
+
+    /**
+     * @param deadlineNanos deadline in {@link System#nanoTime()} terms
+     */
+    public void execute(long deadlineNanos, Runnable command) {
+        submit(true, deadlineNanos, command);
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void submit(boolean hasDeadline, long deadlineNanos, Runnable command) {
+        queue.add(new Task(hasDeadline, deadlineNanos, sequence.getAndIncrement(), command));
+        delegate.execute(this::runNext);
+    }
+
+    private void runNext() {
+        Task task = queue.poll();
+        if (task != null) {
+            task.command.run();
+        }
+    }
+
+    private record Task(boolean hasDeadline, long deadlineNanos, long sequence, Runnable command) {
+    }
+}
@@ -0,0 +1,213 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import org.jboss.logging.Logger;
+
+import io.vertx.core.Context;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Catches gRPC interceptors and handlers that block an event loop.
+ *
+ * <p>{@link EventLoopWatchdogInterceptor} publishes the method and stage each event-loop thread is
+ * running into a per-thread slot; a sampler thread looks at the slots every {@code interval} and,
+ * when one has been busy with the same callback for longer than {@code threshold}, captures the
+ * thread's stack. The first frame in {@code culprit-package} names the interceptor or handler to
+ * blame. Each stall is logged and counted once per method, stage and culprit.
+ *
+ * <p>Publishing is a few plain and volatile writes on the event loop; only the sampler pays for
+ * stack traces, and only when something is actually stuck.
+ */
+@ApplicationScoped
+public class EventLoopWatchdog {
+
+    private static final Logger LOG = Logger.getLogger(EventLoopWatchdog.class);
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final long intervalNanos;
+    private final int stackDepth;
+    private final String culpritPackage;
+    private final GrpcMetrics metrics;
+    private final BooleanSupplier onEventLoop;
+    private final ThreadLocal<Slot> slots = ThreadLocal.withInitial(this::register);
+    private final Set<Slot> registered = ConcurrentHashMap.newKeySet();
+    private final Map<Stall, LongAdder> stalls = new ConcurrentHashMap<>();
+    private volatile Thread sampler;
+
+    @Inject
+    public EventLoopWatchdog(EventLoopWatchdogConfig config, GrpcMetrics metrics) {
+        this(config, metrics, Context::isOnEventLoopThread);
+        if (enabled) {
+            Thread thread = new Thread(this::run, "grpc-event-loop-watchdog");
+            thread.setDaemon(true);
+            sampler = thread;
+            thread.start();
+        }
+    }
+
+    EventLoopWatchdog(EventLoopWatchdogConfig config, GrpcMetrics metrics, BooleanSupplier onEventLoop) {
+        this.enabled = config.enabled();
+        this.thresholdNanos = config.threshold().toNanos();
+        this.intervalNanos = config.interval().toNanos();
+        this.stackDepth = config.stackDepth();
+        this.culpritPackage = config.culpritPackage() + ".";
+        this.metrics = metrics;
+        this.onEventLoop = onEventLoop;
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = sampler;
+        sampler = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Marks the current thread as running {@code stage} of a {@code method} call. Nested calls keep
+     * the outermost stage, which is also the only one whose time is accounted.
+     *
+     * @return whether {@link #exit()} must be called
+     */
+    public boolean enter(String method, String stage) {
+        if (!enabled || !onEventLoop.getAsBoolean()) {
+            return false;
+        }
+        Slot slot = slots.get();
+        if (slot.depth++ == 0) {
+            slot.method = method;
+            slot.stage = stage;
+            slot.sequence++;
+            slot.since = System.nanoTime();
+        }
+        return true;
+    }
+
+    public void exit() {
+        Slot slot = slots.get();
+        if (--slot.depth == 0) {
+            long elapsed = System.nanoTime() - slot.since;
+            slot.since = 0;
+            metrics.method(slot.method).eventLoop(elapsed);
+        }
+    }
+
+    /**
+     * @return stalls seen so far for the given method, stage and culprit
+     */
+    long stalls(String method, String stage, String culprit) {
+        LongAdder count = stalls.get(new Stall(method, stage, culprit));
+        return count == null ? 0 : count.sum();
+    }
+
+    void render(StringBuilder out) {
+        out.append("# TYPE grpc_server_event_loop_stalls_total counter\n");
+        stalls.forEach((stall, count) -> {
+            GrpcMetrics.label(out.append("grpc_server_event_loop_stalls_total{method=\""), stall.method);
+            GrpcMetrics.label(out.append("\",stage=\""), stall.stage);
+            GrpcMetrics.label(out.append("\",culprit=\""), stall.culprit);
+            out.append("\"} ").append(count.sum()).append('\n');
+        });
+    }
+
+    private Slot register() {
+        Slot slot = new Slot(Thread.currentThread());
+        registered.add(slot);
+        return slot;
+    }
+
+    private void run() {
+        while (sampler != null) {
+            LockSupport.parkNanos(intervalNanos);
+            try {
+                sample(System.nanoTime());
+            } catch (RuntimeException e) {
+                LOG.debug("Event loop sampling failed", e);
+            }
+        }
+    }
+
+    void sample(long now) {
+        for (Slot slot : registered) {
+            long since = slot.since;
+            long sequence = slot.sequence;
+            if (since == 0 || sequence == slot.reported || now - since < thresholdNanos) {
+                if (!slot.thread.isAlive()) {
+                    registered.remove(slot);
+                }
+                continue;
+            }
+            String method = slot.method;
+            String stage = slot.stage;
+            StackTraceElement[] stack = slot.thread.getStackTrace();
+            if (slot.sequence != sequence || slot.since != since) {
+                // moved on while the stack was captured, it no longer shows the stall
+                continue;
+            }
+            slot.reported = sequence;
+            String culprit = culprit(stack);
+            stalls.computeIfAbsent(new Stall(method, stage, culprit), stall -> new LongAdder()).increment();
+            LOG.warnf("%s blocked for %d ms in %s (%s) by %s%s", slot.thread.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(now - since), method, stage, culprit, format(stack));
+        }
+    }
+
+    private String culprit(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith(culpritPackage)) {
+                continue;
+            }
+            int nested = className.indexOf('$');
+            String outer = nested < 0 ? className : className.substring(0, nested);
+            if (!outer.equals(EventLoopWatchdog.class.getName()) && !outer.equals(EventLoopWatchdogInterceptor.class.getName())) {
+                return outer.substring(outer.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+            }
+        }
+        return "unknown";
+    }
+
+    private String format(StackTraceElement[] stack) {
+        StringBuilder out = new StringBuilder(stackDepth * 80);
+        for (int i = 0; i < stack.length && i < stackDepth; i++) {
+            out.append("\n\tat ").append(stack[i]);
+        }
+        if (stack.length > stackDepth) {
+            out.append("\n\t... ").append(stack.length - stackDepth).append(" more");
+        }
+        return out.toString();
+    }
+
+    /**
+     * What one event-loop thread is doing. Written only by its thread; {@code since} is written
+     * last on entry, so the sampler sees a consistent method and stage whenever it is non-zero.
+     */
+    private static final class Slot {
+
+        final Thread thread;
+        int depth;
+        volatile String method;
+        volatile String stage;
+        volatile long sequence;
+        volatile long since;
+        long reported;
+
+        Slot(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private record Stall(String method, String stage, String culprit) {
+    }
+}
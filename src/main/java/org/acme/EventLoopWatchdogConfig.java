@@ -0,0 +1,41 @@
+package org.acme;
+
+import java.time.Duration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Event-loop stall detection for gRPC calls, see {@link EventLoopWatchdog}.
+ */
+@ConfigMapping(prefix = "acme.grpc.event-loop-watchdog")
+public interface EventLoopWatchdogConfig {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * How long a single interceptor or handler callback may hold an event loop before it is
+     * reported as a stall.
+     */
+    @WithDefault("20ms")
+    Duration threshold();
+
+    /**
+     * How often the event loops are sampled; stalls are detected up to this late.
+     */
+    @WithDefault("5ms")
+    Duration interval();
+
+    /**
+     * Frames of the blocked thread's stack included in the log entry.
+     */
+    @WithDefault("32")
+    int stackDepth();
+
+    /**
+     * The first stack frame in this package, outside the watchdog itself, names the culprit.
+     */
+    @WithDefault("org.acme")
+    String culpritPackage();
+}
@@ -0,0 +1,110 @@
+package org.acme;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+import jakarta.inject.Inject;
+
+/**
+ * Tells {@link EventLoopWatchdog} which call and stage the event loop is running.
+ *
+ * <p>It has the highest priority, so it is the outermost interceptor: {@code start} covers every
+ * other interceptor's {@code interceptCall} and the handler's setup, and each listener stage covers
+ * the whole chain down to the handler, including responses sent from it on the event loop.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class EventLoopWatchdogInterceptor implements ServerInterceptor, Prioritized {
+
+    private final EventLoopWatchdog watchdog;
+
+    @Inject
+    public EventLoopWatchdogInterceptor(EventLoopWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    public int getPriority() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        String method = serverCall.getMethodDescriptor().getFullMethodName();
+        ServerCall.Listener<ReqT> listener;
+        boolean entered = watchdog.enter(method, "start");
+        try {
+            listener = serverCallHandler.startCall(serverCall, metadata);
+        } finally {
+            if (entered) {
+                watchdog.exit();
+            }
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                boolean entered = watchdog.enter(method, "message");
+                try {
+                    super.onMessage(message);
+                } finally {
+                    if (entered) {
+                        watchdog.exit();
+                    }
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                boolean entered = watchdog.enter(method, "half-close");
+                try {
+                    super.onHalfClose();
+                } finally {
+                    if (entered) {
+                        watchdog.exit();
+                    }
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                boolean entered = watchdog.enter(method, "cancel");
+                try {
+                    super.onCancel();
+                } finally {
+                    if (entered) {
+                        watchdog.exit();
+                    }
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                boolean entered = watchdog.enter(method, "complete");
+                try {
+                    super.onComplete();
+                } finally {
+                    if (entered) {
+                        watchdog.exit();
+                    }
+                }
+            }
+
+            @Override
+            public void onReady() {
+                boolean entered = watchdog.enter(method, "ready");
+                try {
+                    super.onReady();
+                } finally {
+                    if (entered) {
+                        watchdog.exit();
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.acme;
+
+import java.util.Map;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Where {@link ExecutionDispatcher} runs service handlers.
+ */
+@ConfigMapping(prefix = "acme.grpc.execution")
+public interface ExecutionConfig {
+
+    /**
+     * Mode for every method without an override.
+     */
+    @WithDefault("event-loop")
+    Mode mode();
+
+    /**
+     * Overrides keyed by full method name, e.g. {@code "hello.HelloGrpc/SayHello"}.
+     */
+    Map<String, Mode> methods();
+
+    /**
+     * Hand queued worker-pool calls to free threads in order of their gRPC deadline, earliest first.
+     */
+    @WithDefault("true")
+    boolean earliestDeadlineFirst();
+
+    enum Mode {
+        /**
+         * Run on the Vert.x event loop that received the call; only for non-blocking handlers.
+         */
+        EVENT_LOOP,
+        /**
+         * Run on the bounded worker pool, like {@code @Blocking}.
+         */
+        WORKER,
+        /**
+         * Run each call on its own virtual thread.
+         */
+        VIRTUAL_THREAD
+    }
+}
@@ -0,0 +1,151 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableContext;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Runs a handler on the event loop, the worker pool or a virtual thread, as configured per method
+ * in {@link ExecutionConfig}.
+ *
+ * <p>When the handler leaves the calling thread, the caller's request context is captured and
+ * re-activated around the handler so request scoped beans keep working.
+ *
+ * <p>Handlers of calls whose gRPC {@link Context} is already cancelled or past its deadline are
+ * not run at all, neither when dispatched nor when they reach the front of a queue. Cancelling the
+ * gRPC context, or the returned {@link Uni}, fails or drops the pending handler. Worker pool calls
+ * are dequeued earliest deadline first. Time spent running handlers off the event loop is recorded
+ * per method in {@link GrpcMetrics}.
+ */
+@ApplicationScoped
+public class ExecutionDispatcher {
+
+    private final ExecutionConfig.Mode defaultMode;
+    private final Map<String, ExecutionConfig.Mode> methods;
+    private final Executor worker;
+    private final Executor virtualThreads;
+    private final ManagedContext requestContext;
+    private final GrpcMetrics metrics;
+    private final Map<String, ExecutionConfig.Mode> resolved = new ConcurrentHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+
+    @Inject
+    public ExecutionDispatcher(ExecutionConfig config, @VirtualThreads ExecutorService virtualThreads, GrpcMetrics metrics) {
+        this(config, Infrastructure.getDefaultWorkerPool(), virtualThreads, Arc.container().requestContext(), metrics);
+    }
+
+    ExecutionDispatcher(ExecutionConfig config, Executor worker, Executor virtualThreads, ManagedContext requestContext,
+            GrpcMetrics metrics) {
+        this.defaultMode = config.mode();
+        this.methods = Map.copyOf(config.methods());
+        this.worker = config.earliestDeadlineFirst() ? new EarliestDeadlineFirstExecutor(worker) : worker;
+        this.virtualThreads = virtualThreads;
+        this.requestContext = requestContext;
+        this.metrics = metrics;
+    }
+
+    public ExecutionConfig.Mode mode(String fullMethodName) {
+        return resolved.computeIfAbsent(fullMethodName, name -> methods.getOrDefault(name, defaultMode));
+    }
+
+    /**
+     * @return handlers skipped because their call was cancelled or had expired
+     */
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    public <T> Uni<T> dispatch(String fullMethodName, Supplier<T> handler) {
+        Context context = Context.current();
+        Status abandoned = abandoned(context);
+        if (abandoned != null) {
+            skipped.increment();
+            return Uni.createFrom().failure(abandoned.asRuntimeException());
+        }
+        return switch (mode(fullMethodName)) {
+            case EVENT_LOOP -> Uni.createFrom().item(handler);
+            case WORKER -> offload(fullMethodName, handler, worker, context);
+            case VIRTUAL_THREAD -> offload(fullMethodName, handler, virtualThreads, context);
+        };
+    }
+
+    private <T> Uni<T> offload(String fullMethodName, Supplier<T> handler, Executor executor, Context context) {
+        GrpcMetrics.MethodMetrics method = metrics.method(fullMethodName);
+        InjectableContext.ContextState state = requestContext == null ? null : requestContext.getStateIfActive();
+        return Uni.createFrom().emitter(emitter -> {
+            AtomicBoolean done = new AtomicBoolean();
+            Context.CancellationListener cancellation = cancelled -> {
+                if (done.compareAndSet(false, true)) {
+                    skipped.increment();
+                    emitter.fail(abandoned(cancelled).asRuntimeException());
+                }
+            };
+            Runnable task = context.wrap(() -> {
+                context.removeListener(cancellation);
+                if (!done.compareAndSet(false, true)) {
+                    return;
+                }
+                Status abandoned = abandoned(context);
+                if (abandoned != null) {
+                    skipped.increment();
+                    emitter.fail(abandoned.asRuntimeException());
+                    return;
+                }
+                if (state != null) {
+                    requestContext.activate(state);
+                }
+                long start = System.nanoTime();
+                try {
+                    emitter.complete(handler.get());
+                } catch (Throwable t) {
+                    emitter.fail(t);
+                } finally {
+                    method.offloaded(System.nanoTime() - start);
+                    if (state != null) {
+                        requestContext.deactivate();
+                    }
+                }
+            });
+            emitter.onTermination(() -> {
+                done.set(true);
+                context.removeListener(cancellation);
+            });
+            context.addListener(cancellation, Runnable::run);
+            Deadline deadline = context.getDeadline();
+            if (deadline != null && executor instanceof EarliestDeadlineFirstExecutor ordered) {
+                ordered.execute(System.nanoTime() + deadline.timeRemaining(TimeUnit.NANOSECONDS), task);
+            } else {
+                executor.execute(task);
+            }
+        });
+    }
+
+    private static Status abandoned(Context context) {
+        Deadline deadline = context.getDeadline();
+        if (deadline != null && deadline.isExpired()) {
+            return Status.DEADLINE_EXCEEDED.withDescription("Deadline expired before the handler ran");
+        }
+        if (context.isCancelled()) {
+            Throwable cause = context.cancellationCause();
+            return cause == null ? Status.CANCELLED : Status.fromThrowable(cause);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package org.acme;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.protobuf.MessageLite;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Compresses requests of all gRPC clients according to {@link ClientCompressionConfig}.
+ *
+ * <p>A codec is only used once the server has listed it in the {@code grpc-accept-encoding} of an
+ * earlier response from the same authority, selected with the same {@link CompressionNegotiator}
+ * the server uses for responses. Until then, and for requests below the minimum size, messages
+ * are sent uncompressed.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcClientCompressionInterceptor implements ClientInterceptor {
+
+    private final ClientCompressionConfig config;
+    private final CompressionCodecs codecs;
+    private final Policy defaultPolicy;
+    private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+    private final Map<String, String> advertised = new ConcurrentHashMap<>();
+
+    @Inject
+    public GrpcClientCompressionInterceptor(ClientCompressionConfig config, CompressionCodecs codecs) {
+        this.config = config;
+        this.codecs = codecs;
+        this.defaultPolicy = new Policy(negotiator(config.codecs()), config.minMessageSize());
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        String authority = next.authority();
+        Policy policy = policy(method.getFullMethodName());
+        String acceptEncoding = advertised.get(authority);
+        String codec = acceptEncoding == null ? null : policy.negotiator.select(acceptEncoding);
+        if (codec != null) {
+            callOptions = callOptions.withCompression(codec);
+        }
+        return new CompressingClientCall<>(next.newCall(method, callOptions), authority, codec != null ? policy.minMessageSize : -1);
+    }
+
+    /**
+     * @return the last {@code grpc-accept-encoding} seen from {@code authority}, or {@code null}
+     */
+    String advertised(String authority) {
+        return advertised.get(authority);
+    }
+
+    private Policy policy(String fullMethodName) {
+        if (config.methods().isEmpty()) {
+            return defaultPolicy;
+        }
+        Policy policy = policies.get(fullMethodName);
+        return policy != null ? policy : policies.computeIfAbsent(fullMethodName, this::newPolicy);
+    }
+
+    private Policy newPolicy(String fullMethodName) {
+        ClientCompressionConfig.Method method = config.methods().get(fullMethodName);
+        if (method == null) {
+            return defaultPolicy;
+        }
+        return new Policy(method.codecs().map(this::negotiator).orElse(defaultPolicy.negotiator),
+                method.minMessageSize().orElse(defaultPolicy.minMessageSize));
+    }
+
+    private CompressionNegotiator negotiator(List<String> preferred) {
+        return new CompressionNegotiator(preferred.stream()
+                .filter(codec -> codecs.get(codec.trim()) != null)
+                .toList());
+    }
+
+    private record Policy(CompressionNegotiator negotiator, int minMessageSize) {
+    }
+
+    private final class CompressingClientCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final String authority;
+        private final int minMessageSize;
+
+        CompressingClientCall(ClientCall<ReqT, RespT> delegate, String authority, int minMessageSize) {
+            super(delegate);
+            this.authority = authority;
+            this.minMessageSize = minMessageSize;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onHeaders(Metadata headers) {
+                    String acceptEncoding = headers.get(CompressionNegotiator.GRPC_ACCEPT_ENCODING_KEY);
+                    if (acceptEncoding != null && !Objects.equals(acceptEncoding, advertised.get(authority))) {
+                        advertised.put(authority, acceptEncoding);
+                    }
+                    super.onHeaders(headers);
+                }
+            }, headers);
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (minMessageSize >= 0) {
+                delegate().setMessageCompression(!(message instanceof MessageLite lite) || lite.getSerializedSize() >= minMessageSize);
+            }
+            super.sendMessage(message);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.acme;
+
+import com.google.protobuf.MessageLite;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Negotiates the response codec from the client's {@code grpc-accept-encoding} header and decides
+ * per message whether compressing it is worth the CPU.
+ *
+ * <p>The codec is announced once in the response headers; small messages and messages sent while
+ * the machine is busy are then flagged as uncompressed, which the gRPC framing allows per message.
+ * Calls with nothing to negotiate are explicitly sent as {@code identity}, since the transport would
+ * otherwise apply {@code quarkus.grpc.server.compression} to them regardless of what the client
+ * accepts.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcCompressionInterceptor implements ServerInterceptor {
+
+    private final CompressionCodecs codecs;
+    private final CompressionNegotiator negotiator;
+    private final int minMessageSize;
+    private final int dictionaryMinMessageSize;
+    private final double maxCpuLoad;
+    private final CpuLoad cpuLoad;
+
+    @Inject
+    public GrpcCompressionInterceptor(CompressionConfig config, CompressionCodecs codecs, CpuLoad cpuLoad) {
+        this.codecs = codecs;
+        this.negotiator = codecs.negotiator();
+        this.minMessageSize = config.minMessageSize();
+        this.dictionaryMinMessageSize = config.dictionaries().minMessageSize();
+        this.maxCpuLoad = config.maxCpuLoad();
+        this.cpuLoad = cpuLoad;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        String codec = negotiator.select(metadata);
+        if (codec == null) {
+            // overrides quarkus.grpc.server.compression, which would otherwise compress for every client
+            return serverCallHandler.startCall(new AdaptiveCompressionServerCall<>(serverCall, CompressionNegotiator.IDENTITY, 0), metadata);
+        }
+        int threshold = codecs.isDictionary(codec) ? dictionaryMinMessageSize : minMessageSize;
+        return serverCallHandler.startCall(new AdaptiveCompressionServerCall<>(serverCall, codec, threshold), metadata);
+    }
+
+    boolean shouldCompress(Object message, int minMessageSize) {
+        if (message instanceof MessageLite lite && lite.getSerializedSize() < minMessageSize) {
+            return false;
+        }
+        return cpuLoad.get() < maxCpuLoad;
+    }
+
+    private final class AdaptiveCompressionServerCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final String codec;
+        private final boolean identity;
+        private final int minMessageSize;
+
+        AdaptiveCompressionServerCall(ServerCall<ReqT, RespT> delegate, String codec, int minMessageSize) {
+            super(delegate);
+            this.codec = codec;
+            this.identity = CompressionNegotiator.IDENTITY.equals(codec);
+            this.minMessageSize = minMessageSize;
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+            delegate().setCompression(codec);
+            super.sendHeaders(headers);
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            boolean compress = !identity && shouldCompress(message, minMessageSize);
+            if (compress && GrpcJfr.enabled()) {
+                GrpcJfr.compressing(codec);
+            }
+            delegate().setMessageCompression(compress);
+            super.sendMessage(message);
+        }
+    }
+}
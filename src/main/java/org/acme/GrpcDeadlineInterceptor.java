@@ -0,0 +1,145 @@
+package org.acme;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+
+/**
+ * Turns the client's {@code grpc-timeout} into a deadline on a cancellable gRPC {@link Context}
+ * that lives exactly as long as the call, so {@link ExecutionDispatcher} can skip, reorder and stop
+ * work for calls nobody waits for any more.
+ *
+ * <p>The separate grpc-java server already derives a context deadline from the header, the shared
+ * Vert.x server does not; the earlier of the two wins. Calls that arrive already expired are
+ * closed with {@code DEADLINE_EXCEEDED} without reaching the service. The context is cancelled when
+ * the client cancels, when the deadline passes and when the call completes.
+ *
+ * <p>It is the outermost admission interceptor, above {@link ConcurrencyLimitInterceptor}, so an
+ * expired call is turned away before it takes a concurrency slot. Its priority is below the
+ * default, so metrics and the access log still see those calls.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcDeadlineInterceptor implements ServerInterceptor, Prioritized {
+
+    private static final Metadata.Key<byte[]> GRPC_TIMEOUT = RawMetadataKeys.key("grpc-timeout");
+
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "grpc-deadline-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder expired = new LongAdder();
+
+    public GrpcDeadlineInterceptor() {
+        // almost every call completes before its deadline, drop its timer then instead of keeping
+        // it queued, with the context it references, until the deadline would have passed
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public int getPriority() {
+        return -100;
+    }
+
+    @PreDestroy
+    void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * @return calls rejected because their deadline had passed on arrival
+     */
+    public long expired() {
+        return expired.sum();
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        Deadline deadline = Context.current().getDeadline();
+        long timeoutNanos = timeoutNanos(metadata.get(GRPC_TIMEOUT));
+        if (timeoutNanos >= 0) {
+            Deadline fromHeader = Deadline.after(timeoutNanos, TimeUnit.NANOSECONDS);
+            if (deadline == null || fromHeader.isBefore(deadline)) {
+                deadline = fromHeader;
+            }
+        }
+        if (deadline != null && deadline.isExpired()) {
+            expired.increment();
+            serverCall.close(Status.DEADLINE_EXCEEDED.withDescription("Deadline expired before the call was dispatched"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        Context.CancellableContext context = deadline != null
+                ? Context.current().withDeadline(deadline, timer)
+                : Context.current().withCancellation();
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = Contexts.interceptCall(context, serverCall, metadata, serverCallHandler);
+        } catch (RuntimeException e) {
+            context.cancel(e);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    context.cancel(null);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } finally {
+                    context.cancel(null);
+                }
+            }
+        };
+    }
+
+    /**
+     * Parses a {@code grpc-timeout} value: up to eight digits followed by one of {@code HMSmun}.
+     *
+     * @return the timeout in nanoseconds, or -1 if absent or malformed
+     */
+    static long timeoutNanos(byte[] value) {
+        if (value == null || value.length < 2 || value.length > 9) {
+            return -1;
+        }
+        long amount = 0;
+        for (int i = 0; i < value.length - 1; i++) {
+            int digit = value[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            amount = amount * 10 + digit;
+        }
+        return switch (value[value.length - 1]) {
+            case 'H' -> TimeUnit.HOURS.toNanos(amount);
+            case 'M' -> TimeUnit.MINUTES.toNanos(amount);
+            case 'S' -> TimeUnit.SECONDS.toNanos(amount);
+            case 'm' -> TimeUnit.MILLISECONDS.toNanos(amount);
+            case 'u' -> TimeUnit.MICROSECONDS.toNanos(amount);
+            case 'n' -> amount;
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,483 @@
+package org.acme;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Hedges and retries the idempotent unary methods listed in {@link HedgingConfig}.
+ *
+ * <p>When an attempt has not received response headers after the configured quantile of the
+ * method's observed latency, another attempt is sent; the first one to receive headers wins and
+ * the others are cancelled. An attempt failing with a retryable code while no other one is running
+ * is retried immediately. Every extra attempt takes a token from a shared bucket that only refills
+ * with successful calls, so a struggling backend sees at most {@code token-ratio} extra load.
+ *
+ * <p>The delay is derived from the first attempt's time to its first response, the same thing the
+ * hedge races against, never from the end-to-end latency of hedged calls: that latency is already
+ * cut at the delay and would pull it down with every hedge. When the first attempt loses, the time
+ * it had been running is recorded as a lower bound of its latency. Samples older than one to two
+ * {@code latency-window}s are dropped, so the delay follows the backend's current latency.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcHedgingInterceptor implements ClientInterceptor {
+
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final Set<String> methods;
+    private final int maxAttempts;
+    private final double quantile;
+    private final long initialDelayNanos;
+    private final int minSamples;
+    private final long windowNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final Set<Status.Code> retryableCodes;
+    private final TokenBucket tokens;
+    private final Map<String, Delay> delays = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "grpc-hedging-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    @Inject
+    public GrpcHedgingInterceptor(HedgingConfig config) {
+        this.enabled = config.enabled();
+        this.methods = Set.copyOf(config.methods());
+        this.maxAttempts = Math.max(1, config.maxAttempts());
+        this.quantile = config.quantile();
+        this.initialDelayNanos = config.initialDelay().toNanos();
+        this.minSamples = config.minSamples();
+        this.windowNanos = config.latencyWindow().toNanos();
+        this.minDelayNanos = config.minDelay().toNanos();
+        this.maxDelayNanos = config.maxDelay().toNanos();
+        this.retryableCodes = config.retryableCodes().isEmpty() ? Set.of() : EnumSet.copyOf(config.retryableCodes());
+        this.tokens = new TokenBucket(config.maxTokens(), config.tokenRatio());
+        // most calls answer before their hedge is due, don't keep the cancelled timers queued
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        timer.shutdownNow();
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        if (!enabled || maxAttempts < 2 || method.getType() != MethodDescriptor.MethodType.UNARY
+                || !methods.contains(method.getFullMethodName())) {
+            return next.newCall(method, callOptions);
+        }
+        Delay delay = delays.computeIfAbsent(method.getFullMethodName(), name -> new Delay());
+        return new HedgingCall<>(method, callOptions, next, delay);
+    }
+
+    /**
+     * @return the current hedging delay of {@code fullMethodName} in nanoseconds
+     */
+    long delayNanos(String fullMethodName) {
+        return delays.computeIfAbsent(fullMethodName, name -> new Delay()).nanos();
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return calls answered by an attempt other than the first
+     */
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    void render(StringBuilder out) {
+        out.append("# TYPE grpc_client_hedges_total counter\n")
+                .append("grpc_client_hedges_total ").append(hedges()).append('\n')
+                .append("# TYPE grpc_client_hedge_wins_total counter\n")
+                .append("grpc_client_hedge_wins_total ").append(hedgeWins()).append('\n')
+                .append("# TYPE grpc_client_retries_total counter\n")
+                .append("grpc_client_retries_total ").append(retries()).append('\n')
+                .append("# TYPE grpc_client_hedges_throttled_total counter\n")
+                .append("grpc_client_hedges_throttled_total ").append(throttled()).append('\n')
+                .append("# TYPE grpc_client_hedge_tokens gauge\n")
+                .append("grpc_client_hedge_tokens ").append(tokens.available()).append('\n')
+                .append("# TYPE grpc_client_hedge_delay_seconds gauge\n");
+        delays.forEach((method, delay) -> GrpcMetrics.label(out.append("grpc_client_hedge_delay_seconds{method=\""), method)
+                .append("\"} ").append(delay.nanos() / 1e9).append('\n'));
+    }
+
+    /**
+     * Per-method first-attempt latency and the hedging delay derived from it, refreshed at most
+     * once a second since a snapshot walks every bucket. Samples go to the current of two
+     * histograms; when a window ends the older one is cleared and becomes the current one.
+     */
+    private final class Delay {
+
+        private volatile LatencyHistogram currentMicros = new LatencyHistogram();
+        private volatile LatencyHistogram previousMicros = new LatencyHistogram();
+        private volatile long nanos = initialDelayNanos;
+        private volatile long refreshAt = System.nanoTime() + REFRESH_NANOS;
+        private volatile long rotateAt = System.nanoTime() + windowNanos;
+
+        void record(long durationNanos) {
+            currentMicros.record(durationNanos / 1000);
+        }
+
+        long nanos() {
+            long now = System.nanoTime();
+            if (now - refreshAt >= 0) {
+                refresh(now);
+            }
+            return nanos;
+        }
+
+        private synchronized void refresh(long now) {
+            if (now - refreshAt < 0) {
+                return;
+            }
+            refreshAt = now + REFRESH_NANOS;
+            if (now - rotateAt >= 0) {
+                rotateAt = now + windowNanos;
+                LatencyHistogram stale = previousMicros;
+                previousMicros = currentMicros;
+                stale.reset();
+                currentMicros = stale;
+            }
+            LatencyHistogram.Snapshot snapshot = currentMicros.snapshot().merge(previousMicros.snapshot());
+            if (snapshot.count() >= minSamples) {
+                nanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, snapshot.valueAt(quantile) * 1000));
+            }
+        }
+    }
+
+    /**
+     * gRPC-style retry throttling, in thousandths of a token.
+     */
+    static final class TokenBucket {
+
+        private final int max;
+        private final int threshold;
+        private final int refill;
+        private final AtomicInteger tokens;
+
+        TokenBucket(int maxTokens, double tokenRatio) {
+            this.max = maxTokens * 1000;
+            this.threshold = max / 2;
+            this.refill = (int) (tokenRatio * 1000);
+            this.tokens = new AtomicInteger(max);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = tokens.get();
+                if (current <= threshold) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - 1000)) {
+                    return true;
+                }
+            }
+        }
+
+        void succeeded() {
+            tokens.accumulateAndGet(refill, (current, delta) -> Math.min(max, current + delta));
+        }
+
+        double available() {
+            return tokens.get() / 1000.0;
+        }
+    }
+
+    /**
+     * Replays the caller's operations onto each attempt. Outgoing operations and the commit
+     * decision run under the call's lock; only the winning attempt's events reach the caller.
+     */
+    private final class HedgingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+        private final Delay delay;
+        private final long startNanos = System.nanoTime();
+        private final List<Attempt> running = new ArrayList<>(2);
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private int requested;
+        private ReqT message;
+        private boolean halfClosed;
+        private Boolean messageCompression;
+        private int attempts;
+        private volatile Attempt committed;
+        private boolean cancelled;
+        private ScheduledFuture<?> hedge;
+
+        HedgingCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next, Delay delay) {
+            this.method = method;
+            this.callOptions = callOptions;
+            this.next = next;
+            this.delay = delay;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            synchronized (this) {
+                this.listener = responseListener;
+                this.headers = headers;
+                startAttempt();
+                scheduleHedge();
+            }
+        }
+
+        @Override
+        public synchronized void request(int numMessages) {
+            requested += numMessages;
+            for (Attempt attempt : live()) {
+                attempt.call.request(numMessages);
+            }
+        }
+
+        @Override
+        public synchronized void sendMessage(ReqT message) {
+            this.message = message;
+            for (Attempt attempt : live()) {
+                attempt.call.sendMessage(message);
+            }
+        }
+
+        @Override
+        public synchronized void halfClose() {
+            halfClosed = true;
+            for (Attempt attempt : live()) {
+                attempt.call.halfClose();
+            }
+        }
+
+        @Override
+        public synchronized void setMessageCompression(boolean enabled) {
+            messageCompression = enabled;
+            for (Attempt attempt : live()) {
+                attempt.call.setMessageCompression(enabled);
+            }
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            if (committed != null) {
+                return committed.call.isReady();
+            }
+            for (Attempt attempt : running) {
+                if (attempt.call.isReady()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            List<Attempt> attempts;
+            synchronized (this) {
+                cancelled = true;
+                cancelHedge();
+                attempts = List.copyOf(live());
+            }
+            for (Attempt attempt : attempts) {
+                attempt.call.cancel(message, cause);
+            }
+        }
+
+        /**
+         * @return the attempt operations go to: the winner once there is one, which
+         *         {@link #commit} takes out of {@code running}, until then every running attempt
+         */
+        private List<Attempt> live() {
+            Attempt winner = committed;
+            return winner != null ? List.of(winner) : running;
+        }
+
+        private void startAttempt() {
+            Metadata attemptHeaders = new Metadata();
+            attemptHeaders.merge(headers);
+            Attempt attempt = new Attempt(next.newCall(method, callOptions), attempts++);
+            running.add(attempt);
+            attempt.call.start(attempt, attemptHeaders);
+            if (requested > 0) {
+                attempt.call.request(requested);
+            }
+            if (messageCompression != null) {
+                attempt.call.setMessageCompression(messageCompression);
+            }
+            if (message != null) {
+                attempt.call.sendMessage(message);
+            }
+            if (halfClosed) {
+                attempt.call.halfClose();
+            }
+        }
+
+        private void scheduleHedge() {
+            if (attempts < maxAttempts) {
+                hedge = timer.schedule(this::hedge, delay.nanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void cancelHedge() {
+            if (hedge != null) {
+                hedge.cancel(false);
+                hedge = null;
+            }
+        }
+
+        private synchronized void hedge() {
+            hedge = null;
+            if (committed != null || cancelled || attempts >= maxAttempts) {
+                return;
+            }
+            if (!tokens.tryAcquire()) {
+                throttled.increment();
+                return;
+            }
+            hedges.increment();
+            startAttempt();
+            scheduleHedge();
+        }
+
+        /**
+         * @param answered whether {@code winner} got a response rather than failing outright
+         * @return the attempts to cancel if {@code winner} just won, or {@code null} if it lost
+         */
+        private synchronized List<Attempt> commit(Attempt winner, boolean answered) {
+            if (committed != null) {
+                return committed == winner ? List.of() : null;
+            }
+            committed = winner;
+            cancelHedge();
+            running.remove(winner);
+            List<Attempt> losers = List.copyOf(running);
+            running.clear();
+            if (winner.index > 0) {
+                hedgeWins.increment();
+            }
+            if (answered && (winner.index == 0 || !losers.isEmpty() && losers.get(0).index == 0)) {
+                delay.record(System.nanoTime() - startNanos);
+            }
+            return losers;
+        }
+
+        /**
+         * @return whether the failed attempt was dropped in favour of another one
+         */
+        private synchronized boolean dropped(Attempt attempt, Status status) {
+            if (committed != null || cancelled || !retryableCodes.contains(status.getCode())) {
+                return false;
+            }
+            running.remove(attempt);
+            if (!running.isEmpty()) {
+                return true;
+            }
+            if (attempts >= maxAttempts) {
+                return false;
+            }
+            if (!tokens.tryAcquire()) {
+                throttled.increment();
+                return false;
+            }
+            retries.increment();
+            cancelHedge();
+            startAttempt();
+            scheduleHedge();
+            return true;
+        }
+
+        private final class Attempt extends ClientCall.Listener<RespT> {
+
+            final ClientCall<ReqT, RespT> call;
+            final int index;
+
+            Attempt(ClientCall<ReqT, RespT> call, int index) {
+                this.call = call;
+                this.index = index;
+            }
+
+            @Override
+            public void onHeaders(Metadata headers) {
+                if (won(true)) {
+                    listener.onHeaders(headers);
+                }
+            }
+
+            @Override
+            public void onMessage(RespT message) {
+                if (won(true)) {
+                    listener.onMessage(message);
+                }
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                if (committed != this && dropped(this, status)) {
+                    return;
+                }
+                if (won(status.isOk())) {
+                    if (status.isOk()) {
+                        tokens.succeeded();
+                    }
+                    listener.onClose(status, trailers);
+                }
+            }
+
+            @Override
+            public void onReady() {
+                if (committed == this) {
+                    listener.onReady();
+                }
+            }
+
+            private boolean won(boolean answered) {
+                List<Attempt> losers = commit(this, answered);
+                if (losers == null) {
+                    return false;
+                }
+                for (Attempt loser : losers) {
+                    loser.call.cancel("Another hedged attempt won", null);
+                }
+                return true;
+            }
+        }
+    }
+}
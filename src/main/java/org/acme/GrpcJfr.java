@@ -0,0 +1,99 @@
+package org.acme;
+
+/**
+ * Runtime switch for the gRPC JFR events and the per-thread scope through which serialization
+ * and compression report into the {@link RpcEvent} of the call whose message they are working on.
+ *
+ * <p>The codec and the number of compressed responses come from {@link GrpcCompressionInterceptor}
+ * and are known on every transport. Compression time and wire bytes come from {@link ProfiledCodec},
+ * which only the grpc-java transports call: the shared Vert.x server compresses gzip with its own
+ * implementation, so there they stay unknown.
+ *
+ * <p>While disabled, the interceptor, marshallers and codecs skip all event work; while enabled,
+ * events are still only written when a JFR recording has them enabled.
+ */
+public final class GrpcJfr {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private static volatile boolean enabled;
+
+    private GrpcJfr() {
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    static Scope enter(Scope scope) {
+        Scope previous = SCOPE.get();
+        SCOPE.set(scope);
+        return previous;
+    }
+
+    static void exit(Scope previous) {
+        SCOPE.set(previous);
+    }
+
+    static void serialized(SerializationEvent event, Class<?> messageType, long bytes, long nanos) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.serializationNanos += nanos;
+            scope.serializedBytes += bytes;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.messageType = messageType;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Called by {@link GrpcCompressionInterceptor} for each response it lets the transport compress
+     * with {@code codec}, whichever transport ends up doing it.
+     */
+    static void compressing(String codec) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.codec = codec;
+            scope.compressedMessages++;
+        }
+    }
+
+    static void compressed(CompressionEvent event, String codec, long bytesIn, long bytesOut, long nanos) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.codec = codec;
+            scope.compressionNanos += nanos;
+            scope.compressedBytes += bytesOut;
+            scope.measuredMessages++;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.codec = codec;
+            event.bytesIn = bytesIn;
+            event.bytesOut = bytesOut;
+            event.commit();
+        }
+    }
+
+    /**
+     * Accumulated cost of the responses of one call. Updated by whichever thread sends a response;
+     * {@code ServerCall.sendMessage} is never called concurrently for the same call.
+     */
+    static final class Scope {
+
+        String codec;
+        int compressedMessages;
+        int measuredMessages;
+        long serializationNanos;
+        long serializedBytes;
+        long compressionNanos;
+        long compressedBytes;
+    }
+}
@@ -0,0 +1,24 @@
+package org.acme;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * JFR events for gRPC calls, see {@link GrpcJfr}.
+ */
+@ConfigMapping(prefix = "acme.grpc.jfr")
+public interface GrpcJfrConfig {
+
+    /**
+     * Whether events are emitted from startup; can be switched at runtime through {@link #path()}.
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Path on the management interface that reports ({@code GET}) and switches
+     * ({@code POST ?enabled=true|false}) emission.
+     */
+    @WithDefault("/q/grpc-jfr")
+    String path();
+}
@@ -0,0 +1,41 @@
+package org.acme;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.ext.web.Router;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Applies {@code acme.grpc.jfr.enabled} at startup and lets operators switch the gRPC JFR events on
+ * and off at runtime, e.g. {@code curl -X POST 'localhost:9100/q/grpc-jfr?enabled=true'}.
+ *
+ * <p>The switch is JVM-wide, so it is only served on the management interface
+ * ({@code quarkus.management.enabled=true}), never on the application router, which with the
+ * shared server also carries gRPC. Without the management interface only the configuration applies.
+ */
+@ApplicationScoped
+public class GrpcJfrEndpoint {
+
+    @Inject
+    GrpcJfrConfig config;
+
+    void start(@Observes StartupEvent event) {
+        GrpcJfr.setEnabled(config.enabled());
+    }
+
+    void register(@Observes ManagementInterface management) {
+        Router router = management.router();
+        router.get(config.path()).handler(ctx -> ctx.response().end("enabled=" + GrpcJfr.enabled() + "\n"));
+        router.post(config.path()).handler(ctx -> {
+            String enabled = ctx.request().getParam("enabled");
+            if (!"true".equals(enabled) && !"false".equals(enabled)) {
+                ctx.response().setStatusCode(400).end("expected ?enabled=true|false\n");
+                return;
+            }
+            GrpcJfr.setEnabled(Boolean.parseBoolean(enabled));
+            ctx.response().end("enabled=" + GrpcJfr.enabled() + "\n");
+        });
+    }
+}
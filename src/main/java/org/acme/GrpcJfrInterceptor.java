@@ -0,0 +1,83 @@
+package org.acme;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+
+/**
+ * Emits one {@link RpcEvent} per call while {@link GrpcJfr} is enabled and a recording asks for it.
+ *
+ * <p>It has the lowest priority, so it is the innermost interceptor and its call is the one the
+ * handler sends through: the scope it enters in {@code sendMessage} covers every other
+ * interceptor's {@code sendMessage}, including {@link GrpcCompressionInterceptor}'s decision.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcJfrInterceptor implements ServerInterceptor, Prioritized {
+
+    @Override
+    public int getPriority() {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        if (!GrpcJfr.enabled()) {
+            return serverCallHandler.startCall(serverCall, metadata);
+        }
+        RpcEvent event = new RpcEvent();
+        if (!event.isEnabled()) {
+            return serverCallHandler.startCall(serverCall, metadata);
+        }
+        event.begin();
+        return serverCallHandler.startCall(new ProfiledServerCall<>(serverCall, event), metadata);
+    }
+
+    private static final class ProfiledServerCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final RpcEvent event;
+        private final GrpcJfr.Scope scope = new GrpcJfr.Scope();
+        private final long startNanos = System.nanoTime();
+
+        ProfiledServerCall(ServerCall<ReqT, RespT> delegate, RpcEvent event) {
+            super(delegate);
+            this.event = event;
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            GrpcJfr.Scope previous = GrpcJfr.enter(scope);
+            try {
+                super.sendMessage(message);
+            } finally {
+                GrpcJfr.exit(previous);
+            }
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = getMethodDescriptor().getFullMethodName();
+                event.status = status.getCode().name();
+                event.codec = scope.codec;
+                event.compressedMessages = scope.compressedMessages;
+                event.responseBytes = scope.serializedBytes;
+                event.responseWireBytes = scope.compressedMessages == 0 ? scope.serializedBytes
+                        : scope.measuredMessages > 0 ? scope.compressedBytes : 0;
+                event.serializationTime = scope.serializationNanos;
+                event.compressionTime = scope.compressionNanos;
+                event.handlerTime = Math.max(0, System.nanoTime() - startNanos - scope.serializationNanos - scope.compressionNanos);
+                event.commit();
+            }
+            super.close(status, trailers);
+        }
+    }
+}
@@ -1,20 +1,54 @@
 package org.acme;
 
+import io.grpc.ForwardingServerCall;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
+import io.grpc.Status;
 import io.quarkus.grpc.GlobalInterceptor;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
+/**
+ * Records one structured access log entry per sampled call into the {@link AccessLog} ring buffer.
+ */
 @ApplicationScoped
 @GlobalInterceptor
 public class GrpcLogInterceptor implements ServerInterceptor {
+
+    private final AccessLog accessLog;
+
+    @Inject
+    public GrpcLogInterceptor(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
     @Override
     public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
-        System.out.println("Intercepting " + serverCall.getMethodDescriptor().getFullMethodName());
-        System.out.println("Metadata " + metadata.toString());
+        if (!accessLog.enabled() || !accessLog.sample()) {
+            return serverCallHandler.startCall(serverCall, metadata);
+        }
+        return serverCallHandler.startCall(new AccessLoggingServerCall<>(serverCall, metadata), metadata);
+    }
+
+    private final class AccessLoggingServerCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final Metadata requestHeaders;
+        private final long startEpochMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+
+        AccessLoggingServerCall(ServerCall<ReqT, RespT> delegate, Metadata requestHeaders) {
+            super(delegate);
+            this.requestHeaders = requestHeaders;
+        }
 
-        return serverCallHandler.startCall(serverCall, metadata);
+        @Override
+        public void close(Status status, Metadata trailers) {
+            accessLog.record(getMethodDescriptor().getFullMethodName(), status.getCode().value(),
+                    startEpochMillis, System.nanoTime() - startNanos, requestHeaders);
+            super.close(status, trailers);
+        }
     }
 }
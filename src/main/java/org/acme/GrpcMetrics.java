@@ -0,0 +1,173 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import io.grpc.Status;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Per full method name server metrics, rendered in the Prometheus text format.
+ */
+@ApplicationScoped
+public class GrpcMetrics {
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final Status.Code[] CODES = Status.Code.values();
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    public MethodMetrics method(String fullMethodName) {
+        MethodMetrics metrics = methods.get(fullMethodName);
+        return metrics != null ? metrics : methods.computeIfAbsent(fullMethodName, name -> new MethodMetrics());
+    }
+
+    public void render(StringBuilder out) {
+        out.append("# TYPE grpc_server_latency_seconds summary\n");
+        methods.forEach((method, metrics) -> {
+            LatencyHistogram.Snapshot latency = metrics.latencyMicros.snapshot();
+            for (double quantile : QUANTILES) {
+                sample(out, "grpc_server_latency_seconds", method, "quantile", Double.toString(quantile),
+                        latency.valueAt(quantile) / 1_000_000.0);
+            }
+            sample(out, "grpc_server_latency_seconds_count", method, null, null, latency.count());
+            sample(out, "grpc_server_latency_seconds_sum", method, null, null, latency.sum() / 1_000_000.0);
+        });
+        counter(out, "grpc_server_started_total", "counter", metrics -> metrics.started.sum());
+        counter(out, "grpc_server_in_flight", "gauge", metrics -> metrics.inFlight.sum());
+        counter(out, "grpc_server_received_bytes_total", "counter", metrics -> metrics.receivedBytes.sum());
+        counter(out, "grpc_server_received_wire_bytes_total", "counter", metrics -> metrics.receivedWireBytes.sum());
+        counter(out, "grpc_server_sent_bytes_total", "counter", metrics -> metrics.sentBytes.sum());
+        counter(out, "grpc_server_sent_wire_bytes_total", "counter", metrics -> metrics.sentWireBytes.sum());
+        seconds(out, "grpc_server_event_loop_seconds_total", metrics -> metrics.eventLoopNanos.sum());
+        seconds(out, "grpc_server_offloaded_seconds_total", metrics -> metrics.offloadedNanos.sum());
+        out.append("# TYPE grpc_server_handled_total counter\n");
+        methods.forEach((method, metrics) -> {
+            for (int i = 0; i < CODES.length; i++) {
+                long handled = metrics.handled[i].sum();
+                if (handled > 0) {
+                    sample(out, "grpc_server_handled_total", method, "code", CODES[i].name(), handled);
+                }
+            }
+        });
+    }
+
+    private void counter(StringBuilder out, String name, String type, ToLongFunction<MethodMetrics> value) {
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        methods.forEach((method, metrics) -> sample(out, name, method, null, null, value.applyAsLong(metrics)));
+    }
+
+    private void seconds(StringBuilder out, String name, ToLongFunction<MethodMetrics> nanos) {
+        out.append("# TYPE ").append(name).append(" counter\n");
+        methods.forEach((method, metrics) -> sample(out, name, method, null, null, nanos.applyAsLong(metrics) / 1e9));
+    }
+
+    private static void sample(StringBuilder out, String name, String method, String label, String labelValue, double value) {
+        out.append(name).append("{method=\"");
+        label(out, method).append('"');
+        if (label != null) {
+            out.append(',').append(label).append("=\"");
+            label(out, labelValue).append('"');
+        }
+        out.append("} ");
+        if (value == (long) value) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Appends {@code value} as the inside of a quoted label value: method names come from clients,
+     * so backslashes, quotes and line feeds are escaped as the text format requires.
+     */
+    static StringBuilder label(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Recorders for a single method. Latency is kept in microseconds; "bytes" are serialized
+     * message sizes and "wire bytes" the sizes after compression, which only the grpc-java
+     * transport reports. Event-loop time is what {@link EventLoopWatchdog} measured inside the
+     * call's interceptors and handler on event-loop threads, offloaded time what
+     * {@link ExecutionDispatcher} spent running the handler elsewhere.
+     */
+    public static final class MethodMetrics {
+
+        final LatencyHistogram latencyMicros = new LatencyHistogram();
+        final LongAdder started = new LongAdder();
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder receivedBytes = new LongAdder();
+        final LongAdder receivedWireBytes = new LongAdder();
+        final LongAdder sentBytes = new LongAdder();
+        final LongAdder sentWireBytes = new LongAdder();
+        final LongAdder eventLoopNanos = new LongAdder();
+        final LongAdder offloadedNanos = new LongAdder();
+        final LongAdder[] handled = new LongAdder[CODES.length];
+
+        MethodMetrics() {
+            for (int i = 0; i < handled.length; i++) {
+                handled[i] = new LongAdder();
+            }
+        }
+
+        public void started() {
+            started.increment();
+            inFlight.increment();
+        }
+
+        public void finished(Status.Code code, long durationNanos) {
+            inFlight.decrement();
+            handled[code.ordinal()].increment();
+            latencyMicros.record(durationNanos / 1000);
+        }
+
+        public void received(long bytes) {
+            receivedBytes.add(bytes);
+        }
+
+        public void receivedWire(long bytes) {
+            receivedWireBytes.add(bytes);
+        }
+
+        public void sent(long bytes) {
+            sentBytes.add(bytes);
+        }
+
+        public void sentWire(long bytes) {
+            sentWireBytes.add(bytes);
+        }
+
+        public void eventLoop(long nanos) {
+            eventLoopNanos.add(nanos);
+        }
+
+        public void offloaded(long nanos) {
+            offloadedNanos.add(nanos);
+        }
+
+        public long eventLoopNanos() {
+            return eventLoopNanos.sum();
+        }
+
+        public long offloadedNanos() {
+            return offloadedNanos.sum();
+        }
+
+        public LatencyHistogram.Snapshot latency() {
+            return latencyMicros.snapshot();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.acme;
+
+import io.grpc.Metadata;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerStreamTracer;
+import io.quarkus.grpc.api.ServerBuilderCustomizer;
+import io.quarkus.grpc.runtime.config.GrpcServerConfiguration;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+
+/**
+ * Adds a stream tracer reporting message sizes as they go over the wire, i.e. after compression.
+ *
+ * <p>Stream tracers are a grpc-java transport feature, so wire sizes are only available with
+ * {@code quarkus.grpc.server.use-separate-server=true}.
+ *
+ * <p>The tracer is created before the transport looks the method up, with whatever path the client
+ * sent; it only picks its {@link GrpcMetrics.MethodMetrics} in {@code serverCallStarted}, which
+ * runs for registered methods only, so unknown paths never add entries.
+ *
+ * <p>Generic and {@link Dependent} like {@link CompressionCodecsCustomizer}, since Quarkus only
+ * calls {@code ServerBuilderCustomizer<?>} beans that are not raw.
+ */
+@Dependent
+public class GrpcMetricsCustomizer<S extends ServerBuilder<S>> implements ServerBuilderCustomizer<S> {
+
+    private final GrpcMetrics metrics;
+
+    @Inject
+    public GrpcMetricsCustomizer(GrpcMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void customize(GrpcServerConfiguration config, S builder) {
+        builder.addStreamTracerFactory(new ServerStreamTracer.Factory() {
+            @Override
+            public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+                return new ServerStreamTracer() {
+                    private volatile GrpcMetrics.MethodMetrics method;
+
+                    @Override
+                    public void serverCallStarted(ServerCallInfo<?, ?> callInfo) {
+                        method = metrics.method(callInfo.getMethodDescriptor().getFullMethodName());
+                    }
+
+                    @Override
+                    public void inboundWireSize(long bytes) {
+                        GrpcMetrics.MethodMetrics method = this.method;
+                        if (method != null) {
+                            method.receivedWire(bytes);
+                        }
+                    }
+
+                    @Override
+                    public void outboundWireSize(long bytes) {
+                        GrpcMetrics.MethodMetrics method = this.method;
+                        if (method != null) {
+                            method.sentWire(bytes);
+                        }
+                    }
+                };
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package org.acme;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.vertx.ext.web.Router;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Serves {@link GrpcMetrics} for Prometheus-style scraping on the HTTP server.
+ */
+@ApplicationScoped
+public class GrpcMetricsEndpoint {
+
+    @Inject
+    GrpcMetrics metrics;
+
+    @Inject
+    AccessLog accessLog;
+
+    @Inject
+    ReplyCache replyCache;
+
+    @Inject
+    CompressionCodecs codecs;
+
+    @Inject
+    ConcurrencyLimitInterceptor concurrencyLimit;
+
+    @Inject
+    GrpcDeadlineInterceptor deadlines;
+
+    @Inject
+    GrpcHedgingInterceptor hedging;
+
+    @Inject
+    EventLoopWatchdog watchdog;
+
+    @Inject
+    ExecutionDispatcher dispatcher;
+
+    @Inject
+    TenantQuotas tenantQuotas;
+
+    @ConfigProperty(name = "acme.grpc.metrics.path", defaultValue = "/q/grpc-metrics")
+    String path;
+
+    void register(@Observes Router router) {
+        router.get(path).handler(ctx -> {
+            StringBuilder out = new StringBuilder(4096);
+            metrics.render(out);
+            concurrencyLimit.render(out);
+            hedging.render(out);
+            watchdog.render(out);
+            tenantQuotas.render(out);
+            out.append("# TYPE grpc_access_log_dropped_total counter\n")
+                    .append("grpc_access_log_dropped_total ").append(accessLog.dropped()).append('\n');
+            out.append("# TYPE grpc_server_abandoned_total counter\n")
+                    .append("grpc_server_abandoned_total{stage=\"accept\"} ").append(deadlines.expired()).append('\n')
+                    .append("grpc_server_abandoned_total{stage=\"dispatch\"} ").append(dispatcher.skipped()).append('\n');
+            CacheStats cache = replyCache.stats();
+            out.append("# TYPE grpc_reply_cache_hits_total counter\n")
+                    .append("grpc_reply_cache_hits_total ").append(cache.hitCount()).append('\n')
+                    .append("# TYPE grpc_reply_cache_misses_total counter\n")
+                    .append("grpc_reply_cache_misses_total ").append(cache.missCount()).append('\n')
+                    .append("# TYPE grpc_reply_cache_evictions_total counter\n")
+                    .append("grpc_reply_cache_evictions_total ").append(cache.evictionCount()).append('\n')
+                    .append("# TYPE grpc_reply_cache_bytes gauge\n")
+                    .append("grpc_reply_cache_bytes ").append(replyCache.weightedSize()).append('\n');
+            if (codecs.get("gzip") instanceof PooledGzipCodec gzip) {
+                out.append("# TYPE grpc_gzip_contexts_created_total counter\n")
+                        .append("grpc_gzip_contexts_created_total ").append(gzip.created()).append('\n')
+                        .append("# TYPE grpc_gzip_contexts_reused_total counter\n")
+                        .append("grpc_gzip_contexts_reused_total ").append(gzip.reused()).append('\n');
+            }
+            ctx.response()
+                    .putHeader("Content-Type", "text/plain; version=0.0.4; charset=utf-8")
+                    .end(out.toString());
+        });
+    }
+}
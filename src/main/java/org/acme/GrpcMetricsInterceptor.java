@@ -0,0 +1,93 @@
+package org.acme;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.protobuf.MessageLite;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Records latency, in-flight calls, message sizes and status codes per method into {@link GrpcMetrics}.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+
+    private final GrpcMetrics metrics;
+
+    @Inject
+    public GrpcMetricsInterceptor(GrpcMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        GrpcMetrics.MethodMetrics method = metrics.method(serverCall.getMethodDescriptor().getFullMethodName());
+        MetricsServerCall<ReqT, RespT> call = new MetricsServerCall<>(serverCall, method);
+        method.started();
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = serverCallHandler.startCall(call, metadata);
+        } catch (RuntimeException e) {
+            call.finish(Status.Code.UNKNOWN);
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                if (message instanceof MessageLite lite) {
+                    method.received(lite.getSerializedSize());
+                }
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onCancel() {
+                call.finish(Status.Code.CANCELLED);
+                super.onCancel();
+            }
+        };
+    }
+
+    private static final class MetricsServerCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final GrpcMetrics.MethodMetrics method;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        MetricsServerCall(ServerCall<ReqT, RespT> delegate, GrpcMetrics.MethodMetrics method) {
+            super(delegate);
+            this.method = method;
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            if (message instanceof MessageLite lite) {
+                method.sent(lite.getSerializedSize());
+            }
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            finish(status.getCode());
+            super.close(status, trailers);
+        }
+
+        void finish(Status.Code code) {
+            if (finished.compareAndSet(false, true)) {
+                method.finished(code, System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
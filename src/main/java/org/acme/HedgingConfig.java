@@ -0,0 +1,84 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import io.grpc.Status;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Client-side hedging and retries of idempotent unary calls, see {@link GrpcHedgingInterceptor}.
+ */
+@ConfigMapping(prefix = "acme.grpc.hedging")
+public interface HedgingConfig {
+
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Full names of the idempotent unary methods that may be sent more than once.
+     */
+    @WithDefault("hello.HelloGrpc/SayHello")
+    Set<String> methods();
+
+    /**
+     * Attempts per call, the original included.
+     */
+    @WithDefault("2")
+    int maxAttempts();
+
+    /**
+     * Latency quantile after which the next attempt is sent.
+     */
+    @WithDefault("0.95")
+    double quantile();
+
+    /**
+     * Hedging delay used until {@code min-samples} calls of a method have been answered.
+     */
+    @WithDefault("50ms")
+    Duration initialDelay();
+
+    /**
+     * Calls needed within the last one to two {@code latency-window}s before the delay is derived
+     * from them; with fewer, the previous delay is kept.
+     */
+    @WithDefault("100")
+    int minSamples();
+
+    /**
+     * How long a latency sample counts towards the delay. Samples are kept in two windows of this
+     * length, the delay follows the current and the previous one.
+     */
+    @WithDefault("30s")
+    Duration latencyWindow();
+
+    @WithDefault("1ms")
+    Duration minDelay();
+
+    @WithDefault("1s")
+    Duration maxDelay();
+
+    /**
+     * Status codes after which a failed attempt is retried right away if no other attempt is
+     * still running.
+     */
+    @WithDefault("unavailable")
+    List<Status.Code> retryableCodes();
+
+    /**
+     * Size of the token bucket shared by all hedges and retries. Each extra attempt takes one
+     * token and is only sent while more than half of the bucket is left.
+     */
+    @WithDefault("10")
+    int maxTokens();
+
+    /**
+     * Tokens earned back per successful call, which caps extra attempts at this share of the
+     * successful traffic once the bucket is drained.
+     */
+    @WithDefault("0.1")
+    double tokenRatio();
+}
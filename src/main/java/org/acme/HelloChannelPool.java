@@ -0,0 +1,120 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.quarkus.grpc.runtime.supports.Channels;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Owns the {@link PooledChannel} to the hello service and produces it, and stubs on top of it,
+ * under {@link PooledGrpcClient}.
+ *
+ * <p>{@code @GrpcClient} injection points cannot be given a custom channel, hence the separate
+ * qualifier. Each connection is built by Quarkus from {@code quarkus.grpc.clients.hello-service},
+ * exactly like the {@code @GrpcClient("hello-service")} channel: TLS, keepalive, message size limits,
+ * {@code ChannelBuilderCustomizer} beans and global client interceptors all apply. The Vert.x based
+ * client ({@code use-quarkus-grpc-client}) has no connection of its own to pool and is rejected.
+ * It only exists with {@code acme.grpc.channel-pool.enabled};
+ * without it this bean is never created at startup and injecting {@link PooledGrpcClient} fails.
+ */
+@ApplicationScoped
+public class HelloChannelPool {
+
+    private static final Logger LOG = Logger.getLogger(HelloChannelPool.class);
+
+    static final String CLIENT = "hello-service";
+
+    private final ChannelPoolConfig config;
+    private final PooledChannel pool;
+
+    @Inject
+    public HelloChannelPool(ChannelPoolConfig config) {
+        if (!config.enabled()) {
+            throw new IllegalStateException("@PooledGrpcClient needs acme.grpc.channel-pool.enabled=true");
+        }
+        this.config = config;
+        List<ManagedChannel> channels = new ArrayList<>(config.size());
+        try {
+            for (int i = 0; i < config.size(); i++) {
+                channels.add(connection());
+            }
+        } catch (RuntimeException e) {
+            channels.forEach(ManagedChannel::shutdownNow);
+            throw e;
+        }
+        this.pool = new PooledChannel(channels);
+    }
+
+    private static ManagedChannel connection() {
+        Channel channel;
+        try {
+            channel = Channels.createChannel(CLIENT, Set.of());
+        } catch (Exception e) {
+            throw new IllegalStateException("Creating a pooled channel to " + CLIENT + " failed", e);
+        }
+        if (channel instanceof ManagedChannel managed) {
+            return managed;
+        }
+        throw new IllegalStateException("@PooledGrpcClient does not support quarkus.grpc.clients." + CLIENT
+                + ".use-quarkus-grpc-client=true");
+    }
+
+    /**
+     * Static so that a disabled pool's bean is not created just to be told so.
+     */
+    static void warmup(@Observes StartupEvent event, ChannelPoolConfig config, Instance<HelloChannelPool> pools)
+            throws InterruptedException {
+        if (config.enabled()) {
+            pools.get().warmup();
+        }
+    }
+
+    void warmup() throws InterruptedException {
+        if (pool.warmup(config.warmupTimeout())) {
+            LOG.infof("Connected %d channels to %s", pool.size(), pool.authority());
+        } else {
+            LOG.warnf("Not all %d channels to %s were ready after %s", pool.size(), pool.authority(),
+                    config.warmupTimeout());
+        }
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        pool.shutdown(Duration.ofSeconds(5));
+    }
+
+    public PooledChannel pool() {
+        return pool;
+    }
+
+    @Produces
+    @PooledGrpcClient
+    Channel channel() {
+        return pool;
+    }
+
+    @Produces
+    @PooledGrpcClient
+    MutinyHelloGrpcGrpc.MutinyHelloGrpcStub mutinyStub() {
+        return MutinyHelloGrpcGrpc.newMutinyStub(pool);
+    }
+
+    @Produces
+    @PooledGrpcClient
+    HelloGrpcGrpc.HelloGrpcBlockingStub blockingStub() {
+        return HelloGrpcGrpc.newBlockingStub(pool);
+    }
+}
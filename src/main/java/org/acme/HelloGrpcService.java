@@ -1,16 +1,150 @@
 package org.acme;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import io.grpc.ServerServiceDefinition;
 import io.quarkus.grpc.GrpcService;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
 
 @GrpcService
-public class HelloGrpcService implements HelloGrpc {
+public class HelloGrpcService extends MutinyHelloGrpcGrpc.HelloGrpcImplBase {
+
+    /**
+     * Batches at least this large are greeted in parallel on {@link BatchPool}.
+     */
+    static final int PARALLEL_BATCH_THRESHOLD = 4096;
+
+    private static final int BATCH_SLICE = 1024;
+
+    private static final String SAY_HELLO = HelloGrpcGrpc.getSayHelloMethod().getFullMethodName();
+    private static final String SAY_HELLO_BATCH = HelloGrpcGrpc.getSayHelloBatchMethod().getFullMethodName();
 
+    private final ReplyCache replyCache;
+    private final ExecutionDispatcher dispatcher;
+
+    @Inject
+    public HelloGrpcService(ReplyCache replyCache, ExecutionDispatcher dispatcher) {
+        this.replyCache = replyCache;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Binds the generated handlers with {@link HelloMarshallers} instead of the default protobuf
+     * marshallers; cached replies are written from the bytes {@link ReplyCache} keeps for them.
+     */
+    @Override
+    public ServerServiceDefinition bindService() {
+        return HelloMarshallers.rebind(super.bindService(), replyCache::serialized);
+    }
+
+    /**
+     * The greeting is a pure function of the request, so replies may be served from {@link ReplyCache}.
+     */
     @Override
     public Uni<HelloReply> sayHello(HelloRequest request) {
-        return Uni.createFrom().item("Hello " + request.getName() + "!")
-                .map(msg -> HelloReply.newBuilder().setMessage(msg).build());
+        return dispatcher.dispatch(SAY_HELLO, () -> replyCache.get(SAY_HELLO, request, r -> greet(r.getName())));
+    }
+
+    /**
+     * Greetings are produced lazily as the transport requests them, so a slow reader holds back the
+     * iteration instead of having replies queue up in memory.
+     */
+    @Override
+    public Multi<HelloReply> sayHelloStream(HelloStreamRequest request) {
+        return Multi.createFrom().iterable(request.getNamesList())
+                .map(HelloGrpcService::greet);
+    }
+
+    /**
+     * Requests are pulled from the client only as fast as replies can be written.
+     */
+    @Override
+    public Multi<HelloReply> sayHelloBidi(Multi<HelloRequest> requests) {
+        return requests.map(request -> greet(request.getName()));
+    }
+
+    /**
+     * Large batches still go through {@link ExecutionDispatcher}, so they keep the configured mode
+     * and deadline checks; the dispatched handler then fans the greeting out over {@link BatchPool}.
+     */
+    @Override
+    public Uni<HelloBatchReply> sayHelloBatch(HelloBatchRequest request) {
+        List<String> names = request.getNamesList();
+        if (names.size() < PARALLEL_BATCH_THRESHOLD) {
+            return dispatcher.dispatch(SAY_HELLO_BATCH, () -> {
+                HelloBatchReply.Builder reply = HelloBatchReply.newBuilder();
+                StringBuilder message = new StringBuilder(32);
+                for (String name : names) {
+                    reply.addMessages(greeting(message, name));
+                }
+                return reply.build();
+            });
+        }
+        return dispatcher.dispatch(SAY_HELLO_BATCH, () -> {
+            String[] messages = new String[names.size()];
+            BatchPool.POOL.invoke(new GreetSlice(names, messages, 0, messages.length));
+            return HelloBatchReply.newBuilder().addAllMessages(Arrays.asList(messages)).build();
+        });
+    }
+
+    static String greeting(StringBuilder message, String name) {
+        message.setLength(0);
+        return message.append("Hello ").append(name).append('!').toString();
+    }
+
+    static HelloReply greet(String name) {
+        return HelloReply.newBuilder().setMessage("Hello " + name + "!").build();
     }
 
+    /**
+     * Fork-join pool for large batches, kept apart from the common pool so batches neither starve
+     * nor are starved by other users of it. Created on the first large batch.
+     */
+    private static final class BatchPool {
+
+        static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("hello-batch-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Greets {@code names[from, to)} into the matching slots of {@code messages}, splitting until
+     * the slice is small enough to run sequentially with one reused {@link StringBuilder}.
+     */
+    private static final class GreetSlice extends RecursiveAction {
+
+        private final List<String> names;
+        private final String[] messages;
+        private final int from;
+        private final int to;
+
+        GreetSlice(List<String> names, String[] messages, int from, int to) {
+            this.names = names;
+            this.messages = messages;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SLICE) {
+                StringBuilder message = new StringBuilder(32);
+                for (int i = from; i < to; i++) {
+                    messages[i] = greeting(message, names.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GreetSlice(names, messages, from, middle), new GreetSlice(names, messages, middle, to));
+        }
+    }
 }
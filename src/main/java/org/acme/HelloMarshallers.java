@@ -0,0 +1,310 @@
+package org.acme;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+import io.grpc.Drainable;
+import io.grpc.HasByteBuffer;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+
+/**
+ * Protobuf marshallers that keep per-call garbage close to zero for small messages.
+ *
+ * <p>Replies are encoded into a reused scratch array and written to the transport in
+ * one copy, the same number of copies as {@code MessageLite.writeTo(OutputStream)} but without the
+ * heap buffer it allocates per message. Requests of known length are decoded straight from the
+ * transport's {@link ByteBuffer} when it exposes one, or from the scratch array otherwise; streams
+ * of unknown length, such as decompressing ones, are parsed incrementally. A message handed to a
+ * transport that never serializes (in-process) is passed through by reference, and one whose bytes
+ * are already known, such as a {@link ReplyCache} hit, is written from those bytes.
+ *
+ * <p>Scratch arrays live in a {@link ContextPool} shared by all threads rather than in thread
+ * locals, so virtual threads, which are new for every call, reuse them too and the idle ones are
+ * bounded however many threads there are.
+ */
+public final class HelloMarshallers {
+
+    private static final int MAX_SCRATCH = 64 * 1024;
+    private static final ContextPool<byte[]> SCRATCH = new ContextPool<>(2 * Runtime.getRuntime().availableProcessors(),
+            scratch -> {
+            });
+
+    private HelloMarshallers() {
+    }
+
+    /**
+     * @return a scratch array of at least {@code size} bytes, to be handed back with {@link ContextPool#release}
+     */
+    private static byte[] scratch(int size) {
+        byte[] scratch = SCRATCH.poll();
+        if (scratch == null || scratch.length < size) {
+            scratch = new byte[Math.max(1024, Integer.highestOneBit(size - 1) << 1)];
+        }
+        return scratch;
+    }
+
+    /**
+     * Rebuilds a bound service so all of its protobuf methods use {@link PooledProtoMarshaller}.
+     */
+    public static ServerServiceDefinition rebind(ServerServiceDefinition definition) {
+        return rebind(definition, message -> null);
+    }
+
+    /**
+     * Like {@link #rebind(ServerServiceDefinition)}, writing messages for which {@code serialized}
+     * returns bytes from those bytes instead of serializing them.
+     */
+    public static ServerServiceDefinition rebind(ServerServiceDefinition definition, Function<Object, byte[]> serialized) {
+        ServiceDescriptor original = definition.getServiceDescriptor();
+        ServiceDescriptor.Builder descriptor = ServiceDescriptor.newBuilder(original.getName())
+                .setSchemaDescriptor(original.getSchemaDescriptor());
+        ServerMethodDefinition<?, ?>[] methods = definition.getMethods().stream()
+                .map(method -> rebind(method, serialized))
+                .toArray(ServerMethodDefinition[]::new);
+        for (ServerMethodDefinition<?, ?> method : methods) {
+            descriptor.addMethod(method.getMethodDescriptor());
+        }
+        ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(descriptor.build());
+        for (ServerMethodDefinition<?, ?> method : methods) {
+            builder.addMethod(method);
+        }
+        return builder.build();
+    }
+
+    private static <ReqT, RespT> ServerMethodDefinition<ReqT, RespT> rebind(ServerMethodDefinition<ReqT, RespT> method,
+            Function<Object, byte[]> serialized) {
+        MethodDescriptor<ReqT, RespT> descriptor = method.getMethodDescriptor();
+        return ServerMethodDefinition.create(descriptor.toBuilder(pooled(descriptor.getRequestMarshaller(), serialized),
+                pooled(descriptor.getResponseMarshaller(), serialized)).build(), method.getServerCallHandler());
+    }
+
+    /**
+     * @return {@code descriptor} with {@link PooledProtoMarshaller}s for its protobuf messages
+     */
+    public static <ReqT, RespT> MethodDescriptor<ReqT, RespT> pooled(MethodDescriptor<ReqT, RespT> descriptor) {
+        return descriptor.toBuilder(pooled(descriptor.getRequestMarshaller()), pooled(descriptor.getResponseMarshaller())).build();
+    }
+
+    static <T> MethodDescriptor.Marshaller<T> pooled(MethodDescriptor.Marshaller<T> marshaller) {
+        return pooled(marshaller, message -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MethodDescriptor.Marshaller<T> pooled(MethodDescriptor.Marshaller<T> marshaller,
+            Function<Object, byte[]> serialized) {
+        if (marshaller instanceof MethodDescriptor.PrototypeMarshaller<T> prototype
+                && prototype.getMessagePrototype() instanceof MessageLite message) {
+            return (MethodDescriptor.Marshaller<T>) new PooledProtoMarshaller<>(message, serialized);
+        }
+        return marshaller;
+    }
+
+    public static final class PooledProtoMarshaller<T extends MessageLite> implements MethodDescriptor.PrototypeMarshaller<T> {
+
+        private final T prototype;
+        private final Parser<T> parser;
+        private final Function<Object, byte[]> serialized;
+
+        public PooledProtoMarshaller(T prototype) {
+            this(prototype, message -> null);
+        }
+
+        /**
+         * @param serialized the bytes of a message already serialized elsewhere, {@code null} for any other
+         */
+        @SuppressWarnings("unchecked")
+        public PooledProtoMarshaller(T prototype, Function<Object, byte[]> serialized) {
+            this.prototype = prototype;
+            this.parser = (Parser<T>) prototype.getParserForType();
+            this.serialized = serialized;
+        }
+
+        @Override
+        public T getMessagePrototype() {
+            return prototype;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<T> getMessageClass() {
+            return (Class<T>) prototype.getClass();
+        }
+
+        @Override
+        public InputStream stream(T value) {
+            return new MessageStream<>(value, serialized.apply(value));
+        }
+
+        @Override
+        public T parse(InputStream stream) {
+            try {
+                if (stream instanceof MessageStream<?> message && getMessageClass().isInstance(message.message) && message.unread()) {
+                    return getMessageClass().cast(message.message);
+                }
+                if (!(stream instanceof KnownLength)) {
+                    // available() is only a hint here, decompressing streams report 0 before their first read
+                    return parseFrom(CodedInputStream.newInstance(stream));
+                }
+                return parse(stream, stream.available());
+            } catch (IOException e) {
+                throw Status.INTERNAL.withDescription("Invalid protobuf byte sequence").withCause(e).asRuntimeException();
+            }
+        }
+
+        private T parse(InputStream stream, int size) throws IOException {
+            if (size == 0) {
+                return castDefault();
+            }
+            if (stream instanceof HasByteBuffer buffers && buffers.byteBufferSupported()) {
+                ByteBuffer buffer = buffers.getByteBuffer();
+                if (buffer != null && buffer.remaining() >= size) {
+                    T message = parseFrom(CodedInputStream.newInstance(buffer.slice(buffer.position(), size)));
+                    stream.skipNBytes(size);
+                    return message;
+                }
+            }
+            if (size <= MAX_SCRATCH) {
+                byte[] scratch = scratch(size);
+                try {
+                    int read = stream.readNBytes(scratch, 0, size);
+                    return parseFrom(CodedInputStream.newInstance(scratch, 0, read));
+                } finally {
+                    SCRATCH.release(scratch);
+                }
+            }
+            return parseFrom(CodedInputStream.newInstance(stream));
+        }
+
+        private T parseFrom(CodedInputStream input) throws InvalidProtocolBufferException {
+            input.setSizeLimit(Integer.MAX_VALUE);
+            T message = parser.parseFrom(input, ExtensionRegistryLite.getEmptyRegistry());
+            input.checkLastTagWas(0);
+            return message;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T castDefault() {
+            return (T) prototype.getDefaultInstanceForType();
+        }
+    }
+
+    /**
+     * Lazily serialized message, or the message with its known bytes. Transports that know
+     * {@link Drainable} (all grpc-java ones) never call {@code read}, which falls back to a heap copy.
+     */
+    private static final class MessageStream<T extends MessageLite> extends InputStream implements Drainable, KnownLength {
+
+        final T message;
+        private final byte[] bytes;
+        private ByteArrayInputStream fallback;
+        private boolean drained;
+
+        /**
+         * @param bytes {@code message} serialized, or {@code null} to serialize it when drained
+         */
+        MessageStream(T message, byte[] bytes) {
+            this.message = message;
+            this.bytes = bytes;
+        }
+
+        boolean unread() {
+            return fallback == null && !drained;
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            if (fallback != null) {
+                int remaining = fallback.available();
+                fallback.transferTo(target);
+                return remaining;
+            }
+            if (drained) {
+                return 0;
+            }
+            drained = true;
+            int size = bytes != null ? bytes.length : message.getSerializedSize();
+            if (size == 0) {
+                return 0;
+            }
+            SerializationEvent event = GrpcJfr.enabled() ? new SerializationEvent() : null;
+            long start = 0;
+            if (event != null) {
+                event.begin();
+                start = System.nanoTime();
+            }
+            if (bytes != null) {
+                target.write(bytes);
+            } else if (size <= MAX_SCRATCH) {
+                byte[] scratch = scratch(size);
+                try {
+                    CodedOutputStream output = CodedOutputStream.newInstance(scratch, 0, size);
+                    message.writeTo(output);
+                    output.checkNoSpaceLeft();
+                    target.write(scratch, 0, size);
+                } finally {
+                    SCRATCH.release(scratch);
+                }
+            } else {
+                message.writeTo(target);
+            }
+            if (event != null) {
+                GrpcJfr.serialized(event, message.getClass(), size, System.nanoTime() - start);
+            }
+            return size;
+        }
+
+        @Override
+        public int available() {
+            if (fallback != null) {
+                return fallback.available();
+            }
+            return drained ? 0 : bytes != null ? bytes.length : message.getSerializedSize();
+        }
+
+        @Override
+        public int read() {
+            return fallback().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return fallback().read(b, off, len);
+        }
+
+        private ByteArrayInputStream fallback() {
+            if (fallback == null) {
+                if (drained) {
+                    fallback = new ByteArrayInputStream(new byte[0]);
+                } else if (bytes != null) {
+                    fallback = new ByteArrayInputStream(bytes);
+                } else if (GrpcJfr.enabled()) {
+                    SerializationEvent event = new SerializationEvent();
+                    event.begin();
+                    long start = System.nanoTime();
+                    byte[] bytes = message.toByteArray();
+                    GrpcJfr.serialized(event, message.getClass(), bytes.length, System.nanoTime() - start);
+                    fallback = new ByteArrayInputStream(bytes);
+                } else {
+                    fallback = new ByteArrayInputStream(message.toByteArray());
+                }
+            }
+            return fallback;
+        }
+    }
+}
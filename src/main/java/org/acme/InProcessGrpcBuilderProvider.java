@@ -0,0 +1,115 @@
+package org.acme;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.jboss.logging.Logger;
+
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.quarkus.grpc.runtime.config.GrpcClientConfiguration;
+import io.quarkus.grpc.runtime.config.GrpcServerConfiguration;
+import io.quarkus.grpc.spi.GrpcBuilderProvider;
+import io.quarkus.runtime.LaunchMode;
+import io.quarkus.runtime.ShutdownContext;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+
+/**
+ * Serves and calls gRPC in-process when {@code quarkus.grpc.server.in-process.enabled} or
+ * {@code quarkus.grpc.clients.<client>.in-process.enabled} is set.
+ *
+ * <p>Quarkus only reads the {@code in-process} settings through a {@link GrpcBuilderProvider}, which
+ * the {@code quarkus-grpc-inprocess} extension would supply but which is not published; this one is
+ * registered in {@code META-INF/services}. Like every provider it replaces the separate gRPC
+ * server, so in-process serving also needs {@code quarkus.grpc.server.use-separate-server=true}
+ * and leaves no gRPC socket for remote callers.
+ *
+ * <p>Each server call gets its own Vert.x event-loop context, as each connection does on the Vert.x
+ * transport, so the interceptors and {@link ExecutionDispatcher} see the same kind of thread and
+ * all callbacks of a call stay on one event loop. The contexts take the event loops in turn, so
+ * co-located callers are spread over all of them rather than queued on one.
+ */
+public class InProcessGrpcBuilderProvider implements GrpcBuilderProvider<InProcessServerBuilder> {
+
+    private static final Logger LOG = Logger.getLogger(InProcessGrpcBuilderProvider.class);
+
+    @Override
+    public boolean providesServer(GrpcServerConfiguration configuration) {
+        return configuration.inProcess().enabled();
+    }
+
+    @Override
+    public ServerBuilder<InProcessServerBuilder> createServerBuilder(Vertx vertx, GrpcServerConfiguration configuration,
+            LaunchMode launchMode) {
+        VertxInternal internal = (VertxInternal) vertx;
+        return InProcessServerBuilder.forName(configuration.inProcess().name())
+                // only looks the method up before the call executor takes over
+                .executor(vertx.nettyEventLoopGroup())
+                .callExecutor(new ServerCallExecutorSupplier() {
+                    @Override
+                    public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata headers) {
+                        Context context = internal.createEventLoopContext();
+                        return command -> context.runOnContext(ignored -> command.run());
+                    }
+                });
+    }
+
+    @Override
+    public void startServer(Server server) throws Exception {
+        server.start();
+    }
+
+    @Override
+    public void postStartup(Server server, ShutdownContext shutdown) {
+        shutdown.addShutdownTask(server::shutdownNow);
+    }
+
+    @Override
+    public void devModeReload(List<ServerServiceDefinition> services, Map<String, ServerMethodDefinition<?, ?>> methods,
+            List<ServerInterceptor> interceptors, ShutdownContext shutdown) {
+        LOG.warn("Services of the in-process gRPC server are not reloaded, restart the application to pick up changes");
+    }
+
+    @Override
+    public boolean serverAlreadyExists() {
+        return false;
+    }
+
+    @Override
+    public String serverInfo(String host, int port, GrpcServerConfiguration configuration) {
+        return "in-process server " + configuration.inProcess().name();
+    }
+
+    @Override
+    public boolean providesChannel(GrpcClientConfiguration configuration) {
+        // clients injected without any quarkus.grpc.clients.<client> entry have no in-process group
+        return configuration.inProcess() != null && configuration.inProcess().enabled();
+    }
+
+    @Override
+    public String resolver() {
+        return "in-process";
+    }
+
+    @Override
+    public ManagedChannelBuilder<?> createChannelBuilder(GrpcClientConfiguration configuration, String target) {
+        return InProcessChannelBuilder.forName(configuration.inProcess().name()).directExecutor();
+    }
+
+    @Override
+    public String channelInfo(GrpcClientConfiguration configuration) {
+        return "in-process channel " + configuration.inProcess().name();
+    }
+}
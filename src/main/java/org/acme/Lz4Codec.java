@@ -0,0 +1,30 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.grpc.Codec;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/**
+ * LZ4 frame format codec: much cheaper than gzip for a somewhat lower ratio.
+ */
+public final class Lz4Codec implements Codec {
+
+    @Override
+    public String getMessageEncoding() {
+        return "lz4";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        return new LZ4FrameOutputStream(os);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        return new LZ4FrameInputStream(is);
+    }
+}
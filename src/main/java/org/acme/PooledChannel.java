@@ -0,0 +1,137 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A {@link Channel} spread over several {@link ManagedChannel}s, i.e. several HTTP/2 connections.
+ *
+ * <p>Each call goes to the channel with the fewest calls outstanding, so a burst is not capped by
+ * one connection's {@code max-concurrent-streams}. The search starts at the next channel in turn,
+ * so ties, such as an idle pool under short calls, go round-robin instead of to the first channel.
+ * Counters are only incremented and decremented, never locked; two calls racing for the same
+ * least-loaded channel is harmless.
+ */
+public final class PooledChannel extends Channel {
+
+    private final ManagedChannel[] channels;
+    private final AtomicIntegerArray outstanding;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public PooledChannel(List<ManagedChannel> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("A channel pool needs at least one channel");
+        }
+        this.channels = channels.toArray(ManagedChannel[]::new);
+        this.outstanding = new AtomicIntegerArray(this.channels.length);
+    }
+
+    public int size() {
+        return channels.length;
+    }
+
+    public int outstanding(int index) {
+        return outstanding.get(index);
+    }
+
+    @Override
+    public String authority() {
+        return channels[0].authority();
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+        int index = leastOutstanding();
+        return new CountingCall<>(channels[index].newCall(method, callOptions), index);
+    }
+
+    private int leastOutstanding() {
+        int start = Math.floorMod(next.getAndIncrement(), channels.length);
+        int best = start;
+        int bestCount = outstanding.get(start);
+        for (int i = 1; i < channels.length && bestCount > 0; i++) {
+            int index = (start + i) % channels.length;
+            int count = outstanding.get(index);
+            if (count < bestCount) {
+                best = index;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Asks every channel to connect and waits until all of them are ready or {@code timeout} passes.
+     *
+     * @return whether every channel became ready
+     */
+    public boolean warmup(Duration timeout) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(channels.length);
+        for (ManagedChannel channel : channels) {
+            awaitReady(channel, ready);
+        }
+        return ready.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void awaitReady(ManagedChannel channel, CountDownLatch ready) {
+        ConnectivityState state = channel.getState(true);
+        if (state == ConnectivityState.READY) {
+            ready.countDown();
+        } else if (state != ConnectivityState.SHUTDOWN) {
+            channel.notifyWhenStateChanged(state, () -> awaitReady(channel, ready));
+        }
+    }
+
+    public void shutdown(Duration timeout) throws InterruptedException {
+        for (ManagedChannel channel : channels) {
+            channel.shutdown();
+        }
+        for (ManagedChannel channel : channels) {
+            if (!channel.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    private final class CountingCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final int index;
+
+        CountingCall(ClientCall<ReqT, RespT> delegate, int index) {
+            super(delegate);
+            this.index = index;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            outstanding.incrementAndGet(index);
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        outstanding.decrementAndGet(index);
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                outstanding.decrementAndGet(index);
+                throw e;
+            }
+        }
+    }
+}
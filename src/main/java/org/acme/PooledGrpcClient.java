@@ -0,0 +1,20 @@
+package org.acme;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.inject.Qualifier;
+
+/**
+ * Selects the {@link PooledChannel} and stubs produced by {@link HelloChannelPool} instead of the
+ * single-connection {@code @GrpcClient("hello-service")} ones.
+ */
+@Qualifier
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.TYPE })
+public @interface PooledGrpcClient {
+}
@@ -0,0 +1,343 @@
+package org.acme;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import io.grpc.Codec;
+
+/**
+ * gzip codec that reuses {@link Deflater}/{@link Inflater} instances instead of creating a new
+ * pair of native zlib streams for every message like {@link Codec.Gzip} does.
+ *
+ * <p>Idle contexts are kept in a {@link ContextPool} per direction shared by all threads, so event
+ * loops, worker threads and virtual threads all reuse them and at most {@code poolSize} of each
+ * stay allocated while idle. Contexts beyond that are ended right away so native memory is
+ * released deterministically rather than by the cleaner.
+ *
+ * <p>It only serves the grpc-java transports (clients and the separate gRPC server); the shared
+ * Vert.x HTTP server compresses gzip responses with its own implementation.
+ */
+public final class PooledGzipCodec implements Codec {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int level;
+    private final int strategy;
+    private final ContextPool<DeflateContext> deflaters;
+    private final ContextPool<InflateContext> inflaters;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public PooledGzipCodec(int level, int strategy, int poolSize) {
+        this.level = level;
+        this.strategy = strategy;
+        this.deflaters = new ContextPool<>(poolSize, context -> context.deflater.end());
+        this.inflaters = new ContextPool<>(poolSize, context -> context.inflater.end());
+    }
+
+    @Override
+    public String getMessageEncoding() {
+        return "gzip";
+    }
+
+    public long created() {
+        return created.sum();
+    }
+
+    public long reused() {
+        return reused.sum();
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        DeflateContext context = deflaters.poll();
+        if (context == null) {
+            created.increment();
+            context = new DeflateContext(level, strategy);
+        } else {
+            reused.increment();
+        }
+        os.write(HEADER);
+        return new GzipOutputStream(os, context);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        InflateContext context = inflaters.poll();
+        if (context == null) {
+            created.increment();
+            context = new InflateContext();
+        } else {
+            reused.increment();
+        }
+        try {
+            readHeader(is, context.crc);
+        } catch (IOException | RuntimeException e) {
+            release(context);
+            throw e;
+        }
+        return new GzipInputStream(is, context);
+    }
+
+    private void release(DeflateContext context) {
+        context.deflater.reset();
+        context.crc.reset();
+        deflaters.release(context);
+    }
+
+    private void release(InflateContext context) {
+        context.inflater.reset();
+        context.crc.reset();
+        inflaters.release(context);
+    }
+
+    private static void readHeader(InputStream in, CRC32 crc) throws IOException {
+        if (readUShort(in, crc) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readUByte(in, crc) != Deflater.DEFLATED) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readUByte(in, crc);
+        skip(in, crc, 6);
+        if ((flags & FEXTRA) == FEXTRA) {
+            skip(in, crc, readUShort(in, crc));
+        }
+        if ((flags & FNAME) == FNAME) {
+            while (readUByte(in, crc) != 0) {
+                // skip file name
+            }
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            while (readUByte(in, crc) != 0) {
+                // skip comment
+            }
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            int expected = (int) crc.getValue() & 0xffff;
+            if (readUShort(in, null) != expected) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+        }
+        crc.reset();
+    }
+
+    private static void skip(InputStream in, CRC32 crc, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readUByte(in, crc);
+        }
+    }
+
+    private static int readUShort(InputStream in, CRC32 crc) throws IOException {
+        int low = readUByte(in, crc);
+        return (readUByte(in, crc) << 8) | low;
+    }
+
+    private static int readUByte(InputStream in, CRC32 crc) throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of GZIP stream");
+        }
+        if (crc != null) {
+            crc.update(b);
+        }
+        return b;
+    }
+
+    private static final class DeflateContext {
+
+        final Deflater deflater;
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final byte[] single = new byte[1];
+
+        DeflateContext(int level, int strategy) {
+            this.deflater = new Deflater(level, true);
+            deflater.setStrategy(strategy);
+        }
+    }
+
+    private static final class InflateContext {
+
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final byte[] single = new byte[1];
+        final byte[] trailer = new byte[8];
+    }
+
+    private final class GzipOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private DeflateContext context;
+
+        GzipOutputStream(OutputStream out, DeflateContext context) {
+            this.out = out;
+            this.context = context;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            context().single[0] = (byte) b;
+            write(context.single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            DeflateContext ctx = context();
+            ctx.crc.update(b, off, len);
+            ctx.deflater.setInput(b, off, len);
+            while (!ctx.deflater.needsInput()) {
+                int n = ctx.deflater.deflate(ctx.buffer, 0, ctx.buffer.length, Deflater.NO_FLUSH);
+                if (n > 0) {
+                    out.write(ctx.buffer, 0, n);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            DeflateContext ctx = context;
+            if (ctx == null) {
+                return;
+            }
+            context = null;
+            try {
+                ctx.deflater.finish();
+                while (!ctx.deflater.finished()) {
+                    int n = ctx.deflater.deflate(ctx.buffer, 0, ctx.buffer.length);
+                    if (n > 0) {
+                        out.write(ctx.buffer, 0, n);
+                    }
+                }
+                writeIntLE(ctx.buffer, 0, (int) ctx.crc.getValue());
+                writeIntLE(ctx.buffer, 4, (int) ctx.deflater.getBytesRead());
+                out.write(ctx.buffer, 0, 8);
+                out.close();
+            } finally {
+                release(ctx);
+            }
+        }
+
+        private DeflateContext context() throws IOException {
+            if (context == null) {
+                throw new IOException("Stream closed");
+            }
+            return context;
+        }
+
+        private static void writeIntLE(byte[] b, int off, int value) {
+            b[off] = (byte) value;
+            b[off + 1] = (byte) (value >> 8);
+            b[off + 2] = (byte) (value >> 16);
+            b[off + 3] = (byte) (value >> 24);
+        }
+    }
+
+    private final class GzipInputStream extends InputStream {
+
+        private final InputStream in;
+        private InflateContext context;
+        private int filled;
+        private boolean eof;
+
+        GzipInputStream(InputStream in, InflateContext context) {
+            this.in = in;
+            this.context = context;
+        }
+
+        @Override
+        public int read() throws IOException {
+            InflateContext ctx = context();
+            int n = read(ctx.single, 0, 1);
+            return n == -1 ? -1 : ctx.single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            InflateContext ctx = context();
+            if (eof) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                while (true) {
+                    int n = ctx.inflater.inflate(b, off, len);
+                    if (n > 0) {
+                        ctx.crc.update(b, off, n);
+                        return n;
+                    }
+                    if (ctx.inflater.finished()) {
+                        readTrailer(ctx);
+                        eof = true;
+                        return -1;
+                    }
+                    if (ctx.inflater.needsDictionary()) {
+                        throw new ZipException("Unexpected preset dictionary in GZIP stream");
+                    }
+                    if (ctx.inflater.needsInput()) {
+                        filled = in.read(ctx.buffer, 0, ctx.buffer.length);
+                        if (filled == -1) {
+                            throw new EOFException("Unexpected end of GZIP stream");
+                        }
+                        ctx.inflater.setInput(ctx.buffer, 0, filled);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+        }
+
+        private void readTrailer(InflateContext ctx) throws IOException {
+            byte[] trailer = ctx.trailer;
+            int remaining = Math.min(ctx.inflater.getRemaining(), 8);
+            System.arraycopy(ctx.buffer, filled - ctx.inflater.getRemaining(), trailer, 0, remaining);
+            if (remaining < 8 && in.readNBytes(trailer, remaining, 8 - remaining) != 8 - remaining) {
+                throw new EOFException("Unexpected end of GZIP trailer");
+            }
+            long crc = readIntLE(trailer, 0) & 0xffffffffL;
+            long size = readIntLE(trailer, 4) & 0xffffffffL;
+            if (crc != ctx.crc.getValue() || size != (ctx.inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            InflateContext ctx = context;
+            if (ctx == null) {
+                return;
+            }
+            context = null;
+            release(ctx);
+            in.close();
+        }
+
+        private InflateContext context() throws IOException {
+            if (context == null) {
+                throw new IOException("Stream closed");
+            }
+            return context;
+        }
+
+        private static int readIntLE(byte[] b, int off) {
+            return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8 | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
+import io.quarkus.grpc.api.ChannelBuilderCustomizer;
+import io.quarkus.grpc.runtime.config.GrpcClientConfiguration;
+import jakarta.enterprise.context.Dependent;
+
+/**
+ * Sends the calls of in-process gRPC clients with {@link HelloMarshallers} instead of the generated
+ * stubs' protobuf marshallers, the client-side counterpart of {@link HelloGrpcService#bindService()}.
+ *
+ * <p>The in-process transport hands the marshalled stream to the server as is, so with the same
+ * marshaller on both ends {@code HelloRequest} and {@code HelloReply} objects are passed by
+ * reference: nothing is serialized, compressed or framed, while client and server interceptors
+ * still run. Clients over a socket keep the generated marshallers; it is only installed on channels
+ * with {@code quarkus.grpc.clients.<client>.in-process.enabled=true}.
+ *
+ * <p>Generic and {@link Dependent} like {@link CompressionCodecsCustomizer}, since Quarkus only
+ * calls {@code ChannelBuilderCustomizer<?>} beans that are not raw.
+ */
+@Dependent
+public class PooledMarshallerClientInterceptor<C extends ManagedChannelBuilder<C>> implements ClientInterceptor, ChannelBuilderCustomizer<C> {
+
+    private final Map<MethodDescriptor<?, ?>, MethodDescriptor<?, ?>> pooled = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<String, Object> customize(String name, GrpcClientConfiguration config, C builder) {
+        if (config.inProcess() != null && config.inProcess().enabled()) {
+            builder.intercept(this);
+        }
+        return Map.of();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        MethodDescriptor<ReqT, RespT> descriptor = (MethodDescriptor<ReqT, RespT>) pooled.get(method);
+        if (descriptor == null) {
+            descriptor = (MethodDescriptor<ReqT, RespT>) pooled.computeIfAbsent(method, m -> HelloMarshallers.pooled(method));
+        }
+        return next.newCall(descriptor, callOptions);
+    }
+}
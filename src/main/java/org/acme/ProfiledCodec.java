@@ -0,0 +1,110 @@
+package org.acme;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.grpc.Codec;
+
+/**
+ * Reports the time and the bytes in and out of each compressed message as a
+ * {@link CompressionEvent} while {@link GrpcJfr} is enabled, and hands out the plain codec streams
+ * otherwise.
+ */
+final class ProfiledCodec implements Codec {
+
+    private final Codec delegate;
+
+    ProfiledCodec(Codec delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getMessageEncoding() {
+        return delegate.getMessageEncoding();
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        if (!GrpcJfr.enabled()) {
+            return delegate.compress(os);
+        }
+        CompressionEvent event = new CompressionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        CountingOutputStream wire = new CountingOutputStream(os);
+        OutputStream compressing = delegate.compress(wire);
+        return new ProfiledOutputStream(compressing, wire, event, System.nanoTime() - start);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        return delegate.decompress(is);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private final class ProfiledOutputStream extends FilterOutputStream {
+
+        private final CountingOutputStream wire;
+        private final CompressionEvent event;
+        private long nanos;
+        private long bytesIn;
+        private boolean closed;
+
+        ProfiledOutputStream(OutputStream out, CountingOutputStream wire, CompressionEvent event, long nanos) {
+            super(out);
+            this.wire = wire;
+            this.event = event;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            out.write(b);
+            nanos += System.nanoTime() - start;
+            bytesIn++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            nanos += System.nanoTime() - start;
+            bytesIn += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long start = System.nanoTime();
+            out.close();
+            nanos += System.nanoTime() - start;
+            GrpcJfr.compressed(event, getMessageEncoding(), bytesIn, wire.count, nanos);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.grpc.InternalMetadata;
+import io.grpc.Metadata;
+
+/**
+ * Interned header keys whose values are the raw {@code byte[]} the transport stored, for
+ * interceptors that only look at a few request headers.
+ *
+ * <p>The keys' marshaller passes the bytes through, so reading a header neither decodes nor copies
+ * it; callers compare the bytes in place, e.g. with {@link #equalsIgnoreCase}. Each lookup still
+ * scans the headers. Keys for ASCII header names can only be built this way through
+ * {@link InternalMetadata#keyOf(String, InternalMetadata.TrustedAsciiMarshaller)}, grpc-java's
+ * internal API with no compatibility guarantee across releases: the public
+ * {@code Metadata.BINARY_BYTE_MARSHALLER} only applies to {@code -bin} headers. A grpc-java upgrade
+ * that changes this API needs this class, and {@code RawMetadataKeysTest}, to follow; the fallback is a
+ * {@code Metadata.Key<String>} with {@code ASCII_STRING_MARSHALLER}, at the cost of a decoded string
+ * per read.
+ */
+public final class RawMetadataKeys {
+
+    private static final InternalMetadata.TrustedAsciiMarshaller<byte[]> RAW = new InternalMetadata.TrustedAsciiMarshaller<>() {
+        @Override
+        public byte[] toAsciiString(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] parseAsciiString(byte[] serialized) {
+            return serialized;
+        }
+    };
+    private static final Map<String, Metadata.Key<byte[]>> KEYS = new ConcurrentHashMap<>();
+
+    private RawMetadataKeys() {
+    }
+
+    /**
+     * @return the interned raw key for an ASCII header name
+     */
+    public static Metadata.Key<byte[]> key(String name) {
+        Metadata.Key<byte[]> key = KEYS.get(name);
+        return key != null ? key : KEYS.computeIfAbsent(name, n -> InternalMetadata.keyOf(n, RAW));
+    }
+
+    /**
+     * @return whether {@code value[from, to)} equals {@code expected}, ignoring ASCII case
+     */
+    static boolean equalsIgnoreCase(byte[] value, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (toLower(value[from + i]) != toLower(expected[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+}
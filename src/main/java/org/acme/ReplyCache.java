@@ -0,0 +1,102 @@
+package org.acme;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.protobuf.MessageLite;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Replies of idempotent unary methods keyed on the method and the request.
+ *
+ * <p>Protobuf messages are immutable and compare by value, so the request itself is the key:
+ * serializing it first would make a hit pay for serializing, copying and hashing the request bytes,
+ * more than building a small reply costs.
+ *
+ * <p>The cache is bounded by the serialized size of its keys and values and evicts with Caffeine's
+ * W-TinyLFU policy, so one-off requests don't push out the frequently repeated ones.
+ *
+ * <p>Replies are serialized once, when they are cached: {@link #serialized} hands those bytes to
+ * {@link HelloMarshallers}, which writes them as they are when the same reply instance is sent, so
+ * a hit skips both building and serializing the reply. It cannot skip compression, which grpc-java
+ * and the Vert.x transport both run over every outgoing message. The bytes are looked up by reply
+ * identity, which is cheaper than hashing an arbitrary reply, and dropped with the entry; an evicted
+ * reply still being sent is then serialized as usual.
+ */
+@ApplicationScoped
+public class ReplyCache {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final Cache<Key, MessageLite> cache;
+    private final Map<Identity, byte[]> serialized;
+
+    @Inject
+    public ReplyCache(ReplyCacheConfig config) {
+        if (!config.enabled()) {
+            this.cache = null;
+            this.serialized = null;
+            return;
+        }
+        Map<Identity, byte[]> serialized = new ConcurrentHashMap<>();
+        Caffeine<Key, MessageLite> builder = Caffeine.newBuilder()
+                .maximumWeight(config.maxBytes())
+                // the reply counts twice, as a message and serialized
+                .weigher((Key key, MessageLite reply) -> ENTRY_OVERHEAD + key.request().getSerializedSize() + 2 * reply.getSerializedSize())
+                .removalListener((Key key, MessageLite reply, RemovalCause cause) -> serialized.remove(new Identity(reply)))
+                .recordStats();
+        config.expireAfterWrite().ifPresent(builder::expireAfterWrite);
+        this.cache = builder.build();
+        this.serialized = serialized;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <Req extends MessageLite, Resp extends MessageLite> Resp get(String method, Req request, Function<Req, Resp> compute) {
+        if (cache == null) {
+            return compute.apply(request);
+        }
+        return (Resp) cache.get(new Key(method, request), key -> {
+            Resp reply = compute.apply(request);
+            serialized.put(new Identity(reply), reply.toByteArray());
+            return reply;
+        });
+    }
+
+    /**
+     * @return the serialized form of {@code reply} if it is a cached reply instance, otherwise {@code null}
+     */
+    public byte[] serialized(Object reply) {
+        return serialized == null ? null : serialized.get(new Identity(reply));
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    public long weightedSize() {
+        return cache == null ? 0 : cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private record Key(String method, MessageLite request) {
+    }
+
+    private record Identity(Object reply) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity identity && identity.reply == reply;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(reply);
+        }
+    }
+}
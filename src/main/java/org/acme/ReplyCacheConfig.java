@@ -0,0 +1,30 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Cache of replies to idempotent unary calls, see {@link ReplyCache}.
+ */
+@ConfigMapping(prefix = "acme.grpc.reply-cache")
+public interface ReplyCacheConfig {
+
+    /**
+     * Off by default: a cached reply is only correct while the method stays a pure function of
+     * its request, which is for each deployment to vouch for.
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Upper bound for the serialized size of all cached requests and replies; replies count twice,
+     * since they are kept both as messages and serialized.
+     */
+    @WithDefault("16777216")
+    long maxBytes();
+
+    Optional<Duration> expireAfterWrite();
+}
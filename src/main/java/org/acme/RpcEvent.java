@@ -0,0 +1,56 @@
+package org.acme;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One server call, from the handler's start to {@code close}.
+ */
+@Name("org.acme.grpc.Rpc")
+@Label("gRPC Call")
+@Category({ "Application", "gRPC" })
+@Description("A server call with its time split into handler, serialization and compression")
+class RpcEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Status")
+    String status;
+
+    @Label("Codec")
+    @Description("Response message encoding, null when responses were not compressed")
+    String codec;
+
+    @Label("Compressed Messages")
+    @Description("Responses sent compressed with the codec")
+    int compressedMessages;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Response Wire Bytes")
+    @Description("Response bytes after compression, 0 when the shared HTTP server compressed them")
+    @DataAmount
+    long responseWireBytes;
+
+    @Label("Handler Time")
+    @Description("Call duration not spent serializing or compressing responses")
+    @Timespan
+    long handlerTime;
+
+    @Label("Serialization Time")
+    @Timespan
+    long serializationTime;
+
+    @Label("Compression Time")
+    @Description("0 when the shared HTTP server compressed the responses")
+    @Timespan
+    long compressionTime;
+}
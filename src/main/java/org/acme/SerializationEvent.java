@@ -0,0 +1,23 @@
+package org.acme;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Serialization of one protobuf message by {@link HelloMarshallers}.
+ */
+@Name("org.acme.grpc.Serialization")
+@Label("gRPC Message Serialization")
+@Category({ "Application", "gRPC" })
+class SerializationEvent extends Event {
+
+    @Label("Message Type")
+    Class<?> messageType;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,31 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.xerial.snappy.SnappyFramedInputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
+
+import io.grpc.Codec;
+
+/**
+ * Snappy framing format codec.
+ */
+public final class SnappyCodec implements Codec {
+
+    @Override
+    public String getMessageEncoding() {
+        return "snappy";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        return new SnappyFramedOutputStream(os);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        return new SnappyFramedInputStream(is);
+    }
+}
@@ -0,0 +1,77 @@
+package org.acme;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Per-tenant rate and concurrency quotas enforced by {@link TenantQuotaInterceptor}.
+ */
+@ConfigMapping(prefix = "acme.grpc.tenant-quota")
+public interface TenantQuotaConfig {
+
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Request header carrying the tenant key; calls without it are not limited.
+     */
+    @WithDefault("x-tenant-id")
+    String header();
+
+    /**
+     * Calls per second each tenant may start; 0 disables the rate quota.
+     */
+    @WithDefault("100")
+    double rate();
+
+    /**
+     * Calls a tenant may start at once after being idle.
+     */
+    @WithDefault("200")
+    int burst();
+
+    /**
+     * Calls each tenant may have in flight; 0 disables the concurrency quota.
+     */
+    @WithDefault("50")
+    int maxConcurrent();
+
+    /**
+     * Tenants tracked at most; the least recently and frequently seen ones are evicted first.
+     */
+    @WithDefault("100000")
+    long maxTenants();
+
+    /**
+     * Tenants idle for this long are forgotten, which refills their buckets.
+     */
+    @WithDefault("10m")
+    Duration expireAfterAccess();
+
+    /**
+     * Properties file with {@code <tenant>.rate}, {@code <tenant>.burst} and
+     * {@code <tenant>.max-concurrent} entries, applied over {@link #tenants()} and reloaded when it
+     * changes.
+     */
+    Optional<String> file();
+
+    /**
+     * Overrides keyed by tenant.
+     */
+    Map<String, Tenant> tenants();
+
+    interface Tenant {
+
+        OptionalDouble rate();
+
+        OptionalInt burst();
+
+        OptionalInt maxConcurrent();
+    }
+}
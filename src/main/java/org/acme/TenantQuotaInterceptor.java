@@ -0,0 +1,113 @@
+package org.acme;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+import jakarta.inject.Inject;
+
+/**
+ * Rejects calls with {@code RESOURCE_EXHAUSTED} before they reach the handler once their tenant is
+ * over its rate or concurrency quota in {@link TenantQuotas}.
+ *
+ * <p>Rate rejections carry {@code grpc-retry-pushback-ms} with the time until the tenant's bucket
+ * admits a call again, which grpc-java clients with retries enabled honour.
+ *
+ * <p>It runs between {@link GrpcDeadlineInterceptor} and {@link ConcurrencyLimitInterceptor}: a
+ * tenant over its quota is turned away before it takes a slot of the shared per-method limit, so
+ * one noisy tenant cannot drive that limit down for everyone.
+ */
+@ApplicationScoped
+@GlobalInterceptor
+public class TenantQuotaInterceptor implements ServerInterceptor, Prioritized {
+
+    static final Metadata.Key<String> RETRY_PUSHBACK = Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final boolean enabled;
+    private final Metadata.Key<byte[]> tenantKey;
+    private final TenantQuotas quotas;
+
+    @Inject
+    public TenantQuotaInterceptor(TenantQuotaConfig config, TenantQuotas quotas) {
+        this.enabled = config.enabled();
+        this.tenantKey = RawMetadataKeys.key(config.header());
+        this.quotas = quotas;
+    }
+
+    @Override
+    public int getPriority() {
+        return -200;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall, Metadata metadata, ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        byte[] key = enabled ? metadata.get(tenantKey) : null;
+        if (key == null) {
+            return serverCallHandler.startCall(serverCall, metadata);
+        }
+        String name = new String(key, StandardCharsets.US_ASCII);
+        TenantQuotas.Tenant tenant = quotas.tenant(name);
+        long now = System.nanoTime();
+        int decision = quotas.tryAcquire(tenant, now);
+        if (decision != TenantQuotas.ALLOWED) {
+            Metadata trailers = new Metadata();
+            String quota = "concurrency";
+            if (decision == TenantQuotas.OVER_RATE) {
+                quota = "rate";
+                trailers.put(RETRY_PUSHBACK, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toMillis(tenant.retryAfterNanos(now)))));
+            }
+            serverCall.close(Status.RESOURCE_EXHAUSTED.withDescription("Tenant " + name + " is over its " + quota + " quota"), trailers);
+            return new ServerCall.Listener<>() {
+            };
+        }
+        QuotaServerCall<ReqT, RespT> call = new QuotaServerCall<>(serverCall, tenant);
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = serverCallHandler.startCall(call, metadata);
+        } catch (RuntimeException e) {
+            call.release();
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                call.release();
+                super.onCancel();
+            }
+        };
+    }
+
+    private static final class QuotaServerCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private final TenantQuotas.Tenant tenant;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        QuotaServerCall(ServerCall<ReqT, RespT> delegate, TenantQuotas.Tenant tenant) {
+            super(delegate);
+            this.tenant = tenant;
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            release();
+            super.close(status, trailers);
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                tenant.release();
+            }
+        }
+    }
+}
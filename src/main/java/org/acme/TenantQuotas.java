@@ -0,0 +1,335 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.logging.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Rate and concurrency state of every tenant seen recently, see {@link TenantQuotaConfig}.
+ *
+ * <p>Tenants live in a Caffeine cache bounded by count and idle time, so an unbounded number of
+ * distinct keys costs at most {@code max-tenants} entries. Each tenant's rate is a GCRA bucket, a
+ * single {@link AtomicLong} holding the theoretical arrival time, and its concurrency an
+ * {@link AtomicInteger}; deciding on a call is a cache lookup and two CAS loops, with no lock.
+ *
+ * <p>A tenant evicted while it has calls in flight or is over its rate would come back with an
+ * empty bucket and no calls counted, so churning keys could reset a noisy tenant's limits. Such
+ * tenants are moved to a side map on eviction and re-attached by the next lookup; the side map is
+ * swept of tenants that no longer need it, so it stays bounded by the calls in flight.
+ *
+ * <p>Quotas come from configuration and, if set, a properties file that is watched and reloaded
+ * in place: live tenants pick up their new quota without losing their state.
+ */
+@ApplicationScoped
+public class TenantQuotas {
+
+    private static final Logger LOG = Logger.getLogger(TenantQuotas.class);
+
+    static final int ALLOWED = 0;
+    static final int OVER_RATE = 1;
+    static final int OVER_CONCURRENCY = 2;
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Quota defaults;
+    private final Map<String, Quota> configured;
+    private final Path file;
+    private final Cache<String, Tenant> tenants;
+    private final Map<String, Tenant> pinned = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private final LongAdder overRate = new LongAdder();
+    private final LongAdder overConcurrency = new LongAdder();
+    private volatile Map<String, Quota> quotas;
+    private WatchService watcher;
+
+    @Inject
+    public TenantQuotas(TenantQuotaConfig config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    TenantQuotas(TenantQuotaConfig config, Ticker ticker) {
+        this.defaults = new Quota(config.rate(), config.burst(), config.maxConcurrent());
+        Map<String, Quota> configured = new HashMap<>();
+        config.tenants().forEach((tenant, quota) -> configured.put(tenant, new Quota(
+                quota.rate().orElse(defaults.rate), quota.burst().orElse(defaults.burst),
+                quota.maxConcurrent().orElse(defaults.maxConcurrent))));
+        this.configured = Map.copyOf(configured);
+        this.quotas = this.configured;
+        this.file = config.file().map(Path::of).map(Path::toAbsolutePath).orElse(null);
+        this.tenants = Caffeine.newBuilder()
+                .maximumSize(config.maxTenants())
+                .expireAfterAccess(config.expireAfterAccess())
+                .ticker(ticker)
+                .evictionListener(this::evicted)
+                .build();
+        if (file != null) {
+            reload();
+            if (config.enabled()) {
+                watch();
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    /**
+     * @return the tenant's state, created with its current quota on first sight
+     */
+    public Tenant tenant(String key) {
+        Tenant tenant = tenants.getIfPresent(key);
+        return tenant != null ? tenant : tenants.get(key, this::attach);
+    }
+
+    private Tenant attach(String key) {
+        Tenant tenant = pinned.remove(key);
+        return tenant != null ? tenant : new Tenant(quota(key));
+    }
+
+    private void evicted(String key, Tenant tenant, RemovalCause cause) {
+        long now = System.nanoTime();
+        if (key != null && tenant != null && tenant.busy(now)) {
+            pinned.put(key, tenant);
+            if (!tenant.busy(now)) {
+                // its last call ended meanwhile
+                pinned.remove(key, tenant);
+            }
+        }
+        long next = nextSweep.get();
+        if (now - next >= 0 && nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+            pinned.forEach((k, t) -> {
+                if (!t.busy(now)) {
+                    pinned.remove(k, t);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return {@link #ALLOWED}, after which {@link Tenant#release()} must be called once the call
+     *         ends, or the quota the call is over
+     */
+    public int tryAcquire(Tenant tenant, long nowNanos) {
+        int decision = tenant.tryAcquire(nowNanos);
+        if (decision == OVER_RATE) {
+            overRate.increment();
+        } else if (decision == OVER_CONCURRENCY) {
+            overConcurrency.increment();
+        }
+        return decision;
+    }
+
+    public long overRate() {
+        return overRate.sum();
+    }
+
+    public long overConcurrency() {
+        return overConcurrency.sum();
+    }
+
+    public long tracked() {
+        return tenants.estimatedSize() + pinned.size();
+    }
+
+    void cleanUp() {
+        tenants.cleanUp();
+    }
+
+    void render(StringBuilder out) {
+        out.append("# TYPE grpc_server_tenant_rejected_total counter\n")
+                .append("grpc_server_tenant_rejected_total{quota=\"rate\"} ").append(overRate()).append('\n')
+                .append("grpc_server_tenant_rejected_total{quota=\"concurrency\"} ").append(overConcurrency()).append('\n')
+                .append("# TYPE grpc_server_tenants_tracked gauge\n")
+                .append("grpc_server_tenants_tracked ").append(tracked()).append('\n');
+    }
+
+    Quota quota(String tenant) {
+        return quotas.getOrDefault(tenant, defaults);
+    }
+
+    /**
+     * Re-reads the quota file and applies it to the tracked tenants; keeps the previous quotas if
+     * the file cannot be read.
+     */
+    void reload() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            LOG.warnf(e, "Unable to read tenant quotas from %s, keeping the current ones", file);
+            return;
+        }
+        Map<String, Quota> loaded = new HashMap<>(configured);
+        try {
+            for (String name : properties.stringPropertyNames()) {
+                int dot = name.lastIndexOf('.');
+                if (dot <= 0) {
+                    throw new IllegalArgumentException("Expected <tenant>.<property>: " + name);
+                }
+                String tenant = name.substring(0, dot);
+                String value = properties.getProperty(name).trim();
+                Quota quota = loaded.getOrDefault(tenant, defaults);
+                loaded.put(tenant, switch (name.substring(dot + 1)) {
+                    case "rate" -> new Quota(Double.parseDouble(value), quota.burst, quota.maxConcurrent);
+                    case "burst" -> new Quota(quota.rate, Integer.parseInt(value), quota.maxConcurrent);
+                    case "max-concurrent" -> new Quota(quota.rate, quota.burst, Integer.parseInt(value));
+                    default -> throw new IllegalArgumentException("Unknown tenant quota property " + name);
+                });
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("Invalid tenant quotas in %s, keeping the current ones: %s", file, e.getMessage());
+            return;
+        }
+        quotas = Map.copyOf(loaded);
+        tenants.asMap().forEach((tenant, state) -> state.quota = quota(tenant));
+        pinned.forEach((tenant, state) -> state.quota = quota(tenant));
+        LOG.infof("Loaded quotas for %d tenants from %s", loaded.size() - configured.size(), file);
+    }
+
+    private void watch() {
+        try {
+            watcher = file.getFileSystem().newWatchService();
+            file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOG.warnf(e, "Unable to watch %s, tenant quotas will not be reloaded", file);
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watcher.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= file.getFileName().equals(event.context());
+                    }
+                    key.reset();
+                    if (changed) {
+                        reload();
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // stopped
+            }
+        }, "tenant-quota-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * A tenant's quota; the GCRA emission interval and burst tolerance are derived once.
+     */
+    static final class Quota {
+
+        final double rate;
+        final int burst;
+        final int maxConcurrent;
+        final long intervalNanos;
+        final long toleranceNanos;
+
+        Quota(double rate, int burst, int maxConcurrent) {
+            this.rate = rate;
+            this.burst = Math.max(1, burst);
+            this.maxConcurrent = maxConcurrent;
+            this.intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+            this.toleranceNanos = intervalNanos * this.burst;
+        }
+    }
+
+    public static final class Tenant {
+
+        private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        volatile Quota quota;
+
+        Tenant(Quota quota) {
+            this.quota = quota;
+        }
+
+        int tryAcquire(long now) {
+            Quota quota = this.quota;
+            if (quota.maxConcurrent > 0) {
+                while (true) {
+                    int current = inFlight.get();
+                    if (current >= quota.maxConcurrent) {
+                        return OVER_CONCURRENCY;
+                    }
+                    if (inFlight.compareAndSet(current, current + 1)) {
+                        break;
+                    }
+                }
+            } else {
+                inFlight.incrementAndGet();
+            }
+            if (quota.intervalNanos > 0) {
+                while (true) {
+                    long current = arrival.get();
+                    long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + quota.intervalNanos;
+                    if (next - now > quota.toleranceNanos) {
+                        inFlight.decrementAndGet();
+                        return OVER_RATE;
+                    }
+                    if (arrival.compareAndSet(current, next)) {
+                        break;
+                    }
+                }
+            }
+            return ALLOWED;
+        }
+
+        public void release() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * @return how long until a call would fit the rate quota again, 0 if it fits now
+         */
+        public long retryAfterNanos(long now) {
+            Quota quota = this.quota;
+            long current = arrival.get();
+            if (quota.intervalNanos == 0 || current == Long.MIN_VALUE) {
+                return 0;
+            }
+            return Math.max(0, current + quota.intervalNanos - now - quota.toleranceNanos);
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * @return whether forgetting the tenant now would lose calls in flight or a rate debt
+         */
+        boolean busy(long now) {
+            return inFlight.get() > 0 || retryAfterNanos(now) > 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.acme;
+
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+
+/**
+ * HTTP/2 tuning applied the same way to the shared Vert.x HTTP server and to the separate gRPC
+ * server, see {@link TransportCustomizer}. Unset values keep each transport's own default.
+ */
+@ConfigMapping(prefix = "acme.grpc.transport")
+public interface TransportConfig {
+
+    /**
+     * HTTP/2 {@code SETTINGS_INITIAL_WINDOW_SIZE}: flow-control window of each new stream, in bytes.
+     */
+    OptionalInt initialWindowSize();
+
+    /**
+     * Flow-control window of the whole connection, in bytes. On the separate server this also turns
+     * off grpc-java's automatic window tuning.
+     */
+    OptionalInt flowControlWindow();
+
+    /**
+     * HTTP/2 {@code SETTINGS_MAX_CONCURRENT_STREAMS} advertised to clients.
+     */
+    OptionalInt maxConcurrentStreams();
+
+    /**
+     * Netty channel write buffer water marks, in bytes. Only the separate server exposes them.
+     */
+    OptionalInt writeBufferLowWaterMark();
+
+    OptionalInt writeBufferHighWaterMark();
+}
@@ -0,0 +1,77 @@
+package org.acme;
+
+import org.jboss.logging.Logger;
+
+import io.grpc.ServerBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.quarkus.grpc.api.ServerBuilderCustomizer;
+import io.quarkus.grpc.runtime.config.GrpcServerConfiguration;
+import io.quarkus.vertx.http.HttpServerOptionsCustomizer;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.grpc.VertxServerBuilder;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+
+/**
+ * Applies {@link TransportConfig} to whichever transport serves gRPC.
+ *
+ * <p>With {@code quarkus.grpc.server.use-separate-server=false} gRPC shares the Vert.x HTTP server,
+ * so the settings go into its {@link HttpServerOptions}; otherwise they go into the Netty builder
+ * behind the separate gRPC server. Event loop counts are not set here: they are
+ * {@code quarkus.http.io-threads} for the shared server and {@code quarkus.grpc.server.instances}
+ * for the separate one.
+ *
+ * <p>Generic and {@link Dependent} like {@link CompressionCodecsCustomizer}, since Quarkus only
+ * calls {@code ServerBuilderCustomizer<?>} beans that are not raw.
+ */
+@Dependent
+public class TransportCustomizer<S extends ServerBuilder<S>> implements HttpServerOptionsCustomizer, ServerBuilderCustomizer<S> {
+
+    private static final Logger LOG = Logger.getLogger(TransportCustomizer.class);
+
+    private final TransportConfig config;
+
+    @Inject
+    public TransportCustomizer(TransportConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void customizeHttpServer(HttpServerOptions options) {
+        Http2Settings settings = options.getInitialSettings();
+        config.initialWindowSize().ifPresent(settings::setInitialWindowSize);
+        config.maxConcurrentStreams().ifPresent(settings::setMaxConcurrentStreams);
+        config.flowControlWindow().ifPresent(options::setHttp2ConnectionWindowSize);
+        if (config.writeBufferLowWaterMark().isPresent() || config.writeBufferHighWaterMark().isPresent()) {
+            LOG.warn("acme.grpc.transport.write-buffer-*-water-mark is ignored by the shared HTTP server");
+        }
+    }
+
+    @Override
+    public void customize(GrpcServerConfiguration serverConfiguration, S builder) {
+        NettyServerBuilder netty;
+        if (builder instanceof VertxServerBuilder vertx) {
+            netty = vertx.nettyBuilder();
+        } else if (builder instanceof NettyServerBuilder nettyBuilder) {
+            netty = nettyBuilder;
+        } else if (builder instanceof InProcessServerBuilder) {
+            return;
+        } else {
+            LOG.warnf("Transport tuning is not supported for %s", builder.getClass().getName());
+            return;
+        }
+        config.initialWindowSize().ifPresent(netty::initialFlowControlWindow);
+        config.flowControlWindow().ifPresent(netty::flowControlWindow);
+        config.maxConcurrentStreams().ifPresent(netty::maxConcurrentCallsPerConnection);
+        if (config.writeBufferLowWaterMark().isPresent() || config.writeBufferHighWaterMark().isPresent()) {
+            WriteBufferWaterMark defaults = WriteBufferWaterMark.DEFAULT;
+            netty.withChildOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                    config.writeBufferLowWaterMark().orElse(defaults.low()),
+                    config.writeBufferHighWaterMark().orElse(defaults.high())));
+        }
+    }
+}
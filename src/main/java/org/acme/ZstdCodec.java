@@ -0,0 +1,60 @@
+package org.acme;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+
+import io.grpc.Codec;
+
+/**
+ * Zstandard codec, optionally primed with a dictionary shared by both peers.
+ *
+ * <p>The dictionary is digested once, into native compression and decompression tables that every
+ * stream references, instead of being loaded again for each message.
+ */
+public final class ZstdCodec implements Codec {
+
+    private final String encoding;
+    private final int level;
+    private final ZstdDictCompress compressDictionary;
+    private final ZstdDictDecompress decompressDictionary;
+
+    public ZstdCodec(int level, byte[] dictionary) {
+        this("zstd", level, dictionary);
+    }
+
+    public ZstdCodec(String encoding, int level, byte[] dictionary) {
+        this.encoding = encoding;
+        this.level = level;
+        this.compressDictionary = dictionary != null ? new ZstdDictCompress(dictionary, level) : null;
+        this.decompressDictionary = dictionary != null ? new ZstdDictDecompress(dictionary) : null;
+    }
+
+    @Override
+    public String getMessageEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        ZstdOutputStreamNoFinalizer out = new ZstdOutputStreamNoFinalizer(os, level);
+        if (compressDictionary != null) {
+            out.setDict(compressDictionary);
+        }
+        return out;
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        ZstdInputStreamNoFinalizer in = new ZstdInputStreamNoFinalizer(is);
+        if (decompressDictionary != null) {
+            in.setDict(decompressDictionary);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,51 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import io.grpc.Metadata;
+
+import org.junit.jupiter.api.Test;
+
+class AccessLogTest {
+
+    private static final Metadata.Key<String> USER_AGENT =
+            Metadata.Key.of("user-agent", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Test
+    void writesOnlyAllowListedHeaders() {
+        AccessLog log = new AccessLog(TestConfigs.mapping(AccessLogConfig.class, Map.of(
+                "acme.grpc.access-log.headers", "user-agent")));
+        Metadata headers = new Metadata();
+        headers.put(USER_AGENT, "k6/\"0.50\"");
+        headers.put(AUTHORIZATION, "Bearer secret");
+
+        assertTrue(log.record("hello.HelloGrpc/SayHello", 0, 1000L, 2_500_000L, headers));
+
+        StringBuilder out = new StringBuilder();
+        assertEquals(1, log.drainTo(out, 10));
+        assertEquals("{\"ts\":1000,\"method\":\"hello.HelloGrpc/SayHello\",\"status\":0,\"durationMicros\":2500,"
+                + "\"user-agent\":\"k6/\\\"0.50\\\"\"}\n", out.toString());
+    }
+
+    @Test
+    void dropsAndCountsWhenFull() {
+        AccessLog log = new AccessLog(TestConfigs.mapping(AccessLogConfig.class, Map.of(
+                "acme.grpc.access-log.buffer-size", "4")));
+        Metadata headers = new Metadata();
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(log.record("m", 0, 0L, 0L, headers));
+        }
+        assertFalse(log.record("m", 0, 0L, 0L, headers));
+        assertEquals(1, log.dropped());
+
+        assertEquals(4, log.drainTo(new StringBuilder(), 10));
+        assertTrue(log.record("m", 0, 0L, 0L, headers));
+    }
+}
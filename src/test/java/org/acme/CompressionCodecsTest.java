@@ -0,0 +1,109 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import io.grpc.Codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CompressionCodecsTest {
+
+    private static final byte[] PAYLOAD = "Hello Neo! ".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @ParameterizedTest
+    @ValueSource(strings = { "gzip", "zstd", "lz4", "snappy", "zstd-hello-v1", "deflate-hello-v1" })
+    void roundTrips(String encoding) throws IOException {
+        Codec codec = TestCodecs.codecs().get(encoding);
+        assertNotNull(codec);
+
+        byte[] compressed = TestCodecs.compress(codec, PAYLOAD);
+        assertTrue(compressed.length < PAYLOAD.length, encoding + " should shrink a repetitive payload");
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(PAYLOAD, in.readAllBytes());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "gzip", "zstd", "lz4", "snappy", "zstd-hello-v1", "deflate-hello-v1" })
+    void isRegisteredForDecompression(String encoding) {
+        CompressionCodecs codecs = TestCodecs.codecs();
+        assertNotNull(codecs.compressorRegistry().lookupCompressor(encoding));
+        assertNotNull(codecs.decompressorRegistry().lookupDecompressor(encoding));
+    }
+
+    @Test
+    void deflateDictionaryShrinksShortReplies() throws IOException {
+        Codec codec = TestCodecs.codecs().get("deflate-hello-v1");
+        byte[] reply = HelloGrpcService.greet("Neo").toByteArray();
+
+        byte[] compressed = TestCodecs.compress(codec, reply);
+        assertTrue(compressed.length < reply.length, compressed.length + " >= " + reply.length);
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(reply, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void negotiatesDictionaryCodecsByVersion() {
+        CompressionCodecs codecs = new CompressionCodecs(TestConfigs.mapping(CompressionConfig.class,
+                Map.of("acme.grpc.compression.codecs", "deflate-hello-v2,deflate-hello-v1,gzip",
+                        "acme.grpc.compression.dictionaries.versions", "v1")));
+
+        assertEquals("deflate-hello-v1", codecs.negotiator().select("gzip, deflate-hello-v1"));
+        assertEquals("gzip", codecs.negotiator().select("gzip, deflate-hello-v2"));
+        assertTrue(codecs.isDictionary("deflate-hello-v1"));
+        assertFalse(codecs.isDictionary("gzip"));
+    }
+
+    @Test
+    void negotiatesEveryListedCodecOnASeparateServer() {
+        CompressionCodecs codecs = new CompressionCodecs(TestConfigs.mapping(CompressionConfig.class,
+                Map.of("acme.grpc.compression.codecs", "zstd,lz4,gzip")), true);
+
+        assertEquals(List.of("zstd", "lz4", "gzip"), codecs.negotiator().preferred());
+        assertEquals("zstd", codecs.negotiator().select("gzip, zstd"));
+    }
+
+    @Test
+    void negotiatesOnlyGzipOnTheSharedServer() {
+        CompressionCodecs codecs = new CompressionCodecs(TestConfigs.mapping(CompressionConfig.class,
+                Map.of("acme.grpc.compression.codecs", "zstd,lz4,gzip")), false);
+
+        assertEquals(List.of("gzip"), codecs.negotiator().preferred());
+        assertEquals("gzip", codecs.negotiator().select("gzip, zstd"));
+        assertNull(codecs.negotiator().select("zstd, lz4"));
+        assertTrue(codecs.decompressorRegistry().getAdvertisedMessageEncodings().contains("zstd"),
+                "clients still advertise what they can decompress");
+    }
+
+    @Test
+    void registersNoDictionaryByDefault() {
+        CompressionCodecs codecs = new CompressionCodecs(TestConfigs.mapping(CompressionConfig.class));
+
+        assertNull(codecs.get("zstd-hello-v1"));
+        assertNull(codecs.get("deflate-hello-v1"));
+    }
+
+    @Test
+    void negotiatesNoDictionaryCodecOnTheSharedServer() {
+        CompressionCodecs codecs = new CompressionCodecs(TestConfigs.mapping(CompressionConfig.class,
+                Map.of("acme.grpc.compression.codecs", "deflate-hello-v1,gzip",
+                        "acme.grpc.compression.dictionaries.versions", "v1")), false);
+
+        assertEquals("gzip", codecs.negotiator().select("deflate-hello-v1, gzip"));
+    }
+}
@@ -0,0 +1,44 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import io.grpc.Metadata;
+
+import org.junit.jupiter.api.Test;
+
+class CompressionNegotiatorTest {
+
+    private final CompressionNegotiator negotiator = new CompressionNegotiator(List.of("lz4", "gzip"));
+
+    @Test
+    void prefersLocalOrderOverClientOrder() {
+        assertEquals("lz4", negotiator.select("gzip,lz4"));
+    }
+
+    @Test
+    void trimsWhitespaceAndIgnoresCase() {
+        assertEquals("gzip", negotiator.select(" GZIP , identity "));
+    }
+
+    @Test
+    void neverSelectsIdentityOrUnknownCodecs() {
+        assertNull(negotiator.select("identity,deflate,snappy"));
+        assertNull(new CompressionNegotiator(List.of("identity")).select("identity"));
+    }
+
+    @Test
+    void combinesRepeatedHeaders() {
+        Metadata headers = new Metadata();
+        headers.put(CompressionNegotiator.GRPC_ACCEPT_ENCODING_KEY, "gzip");
+        headers.put(CompressionNegotiator.GRPC_ACCEPT_ENCODING_KEY, "lz4");
+        assertEquals("lz4", negotiator.select(headers));
+    }
+
+    @Test
+    void returnsNullWithoutHeader() {
+        assertNull(negotiator.select(new Metadata()));
+    }
+}
@@ -0,0 +1,159 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void growsWhileLatencyIsFlat() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, 2.0, 0.2, 600);
+        saturate(limit, 50, FAST);
+        assertTrue(limit.limit() > 20, "limit was " + limit.limit());
+    }
+
+    @Test
+    void shrinksWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 100, 2.0, 0.2, 600);
+        saturate(limit, 50, FAST);
+        int before = limit.limit();
+        saturate(limit, 20, SLOW);
+        assertTrue(limit.limit() < before / 2, "limit went from " + before + " to " + limit.limit());
+    }
+
+    @Test
+    void backsOffOnDrops() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 100, 2.0, 0.2, 600);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire(1.0));
+            limit.releaseDropped();
+        }
+        assertTrue(limit.limit() < 50, "limit was " + limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void rejectsLowerPrioritiesFirst() {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(TestConfigs.mapping(ConcurrencyLimitConfig.class,
+                Map.of("acme.grpc.concurrency-limit.initial-limit", "10", "acme.grpc.concurrency-limit.min-limit", "1")));
+
+        assertEquals(5, admitted(interceptor, "sheddable"));
+        assertEquals(4, admitted(interceptor, null));
+        assertEquals(1, admitted(interceptor, "critical"));
+        assertEquals(10, interceptor.limit(HelloGrpcGrpc.getSayHelloMethod().getFullMethodName()).inFlight());
+    }
+
+    @Test
+    void appliesPerMethodLimits() {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(TestConfigs.mapping(ConcurrencyLimitConfig.class,
+                Map.of("acme.grpc.concurrency-limit.methods.\"hello.HelloGrpc/SayHello\".max-limit", "4")));
+
+        assertEquals(4, admitted(interceptor, "critical"));
+    }
+
+    @Test
+    void releasesOnClose() {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(TestConfigs.mapping(ConcurrencyLimitConfig.class));
+        RecordingServerCall call = new RecordingServerCall();
+        interceptor.interceptCall(call, new Metadata(), (c, headers) -> {
+            c.close(Status.OK, new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        });
+        assertEquals(Status.Code.OK, call.status.getCode());
+        assertEquals(0, interceptor.limit(HelloGrpcGrpc.getSayHelloMethod().getFullMethodName()).inFlight());
+    }
+
+    @Test
+    void ignoresRejectionsBeforeTheHandlerStarts() {
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(TestConfigs.mapping(ConcurrencyLimitConfig.class));
+        AdaptiveConcurrencyLimit limit = interceptor.limit(HelloGrpcGrpc.getSayHelloMethod().getFullMethodName());
+        int before = limit.limit();
+        for (int i = 0; i < 10; i++) {
+            interceptor.interceptCall(new RecordingServerCall(), new Metadata(), (c, headers) -> {
+                c.close(Status.RESOURCE_EXHAUSTED, new Metadata());
+                return new ServerCall.Listener<>() {
+                };
+            });
+        }
+        assertEquals(before, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimit limit, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            while (limit.tryAcquire(1.0)) {
+                // fill every slot so the sample counts as limit-bound
+            }
+            limit.release(rttNanos);
+        }
+        while (limit.inFlight() > 0) {
+            limit.releaseIgnored();
+        }
+    }
+
+    private static int admitted(ConcurrencyLimitInterceptor interceptor, String priority) {
+        ServerCallHandler<HelloRequest, HelloReply> neverCloses = (call, headers) -> new ServerCall.Listener<>() {
+        };
+        Metadata headers = new Metadata();
+        if (priority != null) {
+            headers.put(Metadata.Key.of("x-priority", Metadata.ASCII_STRING_MARSHALLER), priority);
+        }
+        int admitted = 0;
+        while (true) {
+            RecordingServerCall call = new RecordingServerCall();
+            interceptor.interceptCall(call, headers, neverCloses);
+            if (call.status != null) {
+                assertEquals(Status.Code.RESOURCE_EXHAUSTED, call.status.getCode());
+                return admitted;
+            }
+            admitted++;
+        }
+    }
+
+    static final class RecordingServerCall extends ServerCall<HelloRequest, HelloReply> {
+
+        Status status;
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(HelloReply message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.status = status;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public MethodDescriptor<HelloRequest, HelloReply> getMethodDescriptor() {
+            return HelloGrpcGrpc.getSayHelloMethod();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.acme;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import com.google.protobuf.CodedInputStream;
+
+/**
+ * Trains the shared dictionaries loaded by {@link CompressionCodecs} from sampled
+ * {@link HelloRequest}/{@link HelloReply} payloads.
+ *
+ * <p>Samples are either names, one per line, turned into the request and reply the service would
+ * exchange for them, or serialized messages as written by {@code writeDelimitedTo}. The zstd
+ * dictionary is trained by zstd itself, falling back to a raw-content dictionary when there are
+ * too few samples; the deflate dictionary is always raw content, most frequent payloads last since
+ * deflate encodes nearby matches in fewer bits.
+ *
+ * <p>It is a build-time tool and lives with the test sources so it is not shipped:
+ *
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.acme.DictionaryTrainer \
+ *     -Dexec.args="--names names.txt --version v1"
+ * </pre>
+ */
+public final class DictionaryTrainer {
+
+    private static final int DEFAULT_SIZE = 4096;
+
+    private DictionaryTrainer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path names = null;
+        Path payloads = null;
+        String version = null;
+        Path out = Path.of("src/main/resources/dictionaries");
+        int size = DEFAULT_SIZE;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--names" -> names = Path.of(args[++i]);
+                case "--payloads" -> payloads = Path.of(args[++i]);
+                case "--version" -> version = args[++i];
+                case "--out" -> out = Path.of(args[++i]);
+                case "--size" -> size = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (version == null || (names == null) == (payloads == null)) {
+            throw new IllegalArgumentException(
+                    "Usage: DictionaryTrainer (--names <file> | --payloads <file>) --version <v> [--out <dir>] [--size <bytes>]");
+        }
+        List<byte[]> samples = names != null ? fromNames(Files.readAllLines(names)) : fromDelimited(payloads);
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("No samples");
+        }
+        Files.createDirectories(out);
+        Path zstd = out.resolve("hello-" + version + ".zstd");
+        Path deflate = out.resolve("hello-" + version + ".deflate");
+        Files.write(zstd, zstd(samples, size));
+        Files.write(deflate, rawContent(samples, Math.min(size, 32 * 1024)));
+        System.out.printf("%d samples -> %s (%d bytes), %s (%d bytes)%n",
+                samples.size(), zstd, Files.size(zstd), deflate, Files.size(deflate));
+    }
+
+    static List<byte[]> fromNames(List<String> names) {
+        List<byte[]> samples = new ArrayList<>(names.size() * 2);
+        for (String name : names) {
+            if (name.isBlank()) {
+                continue;
+            }
+            samples.add(HelloRequest.newBuilder().setName(name).build().toByteArray());
+            samples.add(HelloGrpcService.greet(name).toByteArray());
+        }
+        return samples;
+    }
+
+    static List<byte[]> fromDelimited(Path file) throws IOException {
+        List<byte[]> samples = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            int first;
+            while ((first = in.read()) != -1) {
+                int length = CodedInputStream.readRawVarint32(first, in);
+                byte[] sample = in.readNBytes(length);
+                if (sample.length != length) {
+                    throw new IOException("Truncated sample in " + file);
+                }
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    static byte[] zstd(List<byte[]> samples, int size) {
+        long total = samples.stream().mapToLong(sample -> sample.length).sum();
+        ZstdDictTrainer trainer = new ZstdDictTrainer((int) Math.min(total, Integer.MAX_VALUE), size);
+        for (byte[] sample : samples) {
+            if (!trainer.addSample(sample)) {
+                break;
+            }
+        }
+        try {
+            return trainer.trainSamples();
+        } catch (ZstdException e) {
+            System.err.println("zstd training failed (" + e.getMessage() + "), writing a raw-content dictionary");
+            return rawContent(samples, size);
+        }
+    }
+
+    /**
+     * @return distinct samples, most frequent last, truncated from the front to {@code size} bytes
+     */
+    static byte[] rawContent(List<byte[]> samples, int size) {
+        Map<ByteBuffer, Integer> counts = new HashMap<>();
+        for (byte[] sample : samples) {
+            counts.merge(ByteBuffer.wrap(sample), 1, Integer::sum);
+        }
+        List<Map.Entry<ByteBuffer, Integer>> ranked = new ArrayList<>(counts.entrySet());
+        ranked.sort(Map.Entry.<ByteBuffer, Integer> comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())));
+        byte[] dictionary = new byte[size];
+        int start = size;
+        for (Map.Entry<ByteBuffer, Integer> entry : ranked) {
+            ByteBuffer sample = entry.getKey();
+            int length = Math.min(sample.remaining(), start);
+            start -= length;
+            sample.duplicate().position(sample.remaining() - length).get(dictionary, start, length);
+            if (start == 0) {
+                break;
+            }
+        }
+        byte[] result = new byte[size - start];
+        System.arraycopy(dictionary, start, result, 0, result.length);
+        return result;
+    }
+}
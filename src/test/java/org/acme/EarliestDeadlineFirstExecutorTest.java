@@ -0,0 +1,33 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.jupiter.api.Test;
+
+class EarliestDeadlineFirstExecutorTest {
+
+    @Test
+    void runsEarliestDeadlineFirstOnceSaturated() {
+        Queue<Runnable> saturated = new ArrayDeque<>();
+        EarliestDeadlineFirstExecutor executor = new EarliestDeadlineFirstExecutor(saturated::add);
+        List<String> order = new ArrayList<>();
+        long now = System.nanoTime();
+
+        executor.execute(() -> order.add("no deadline"));
+        executor.execute(now + 3_000, () -> order.add("late"));
+        executor.execute(now + 1_000, () -> order.add("urgent"));
+        executor.execute(now + 2_000, () -> order.add("soon"));
+        assertEquals(4, executor.queued());
+
+        while (!saturated.isEmpty()) {
+            saturated.poll().run();
+        }
+        assertEquals(List.of("urgent", "soon", "late", "no deadline"), order);
+        assertEquals(0, executor.queued());
+    }
+}
@@ -0,0 +1,74 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class EventLoopWatchdogTest {
+
+    private static final String METHOD = "hello.HelloGrpc/SayHello";
+
+    private final GrpcMetrics metrics = new GrpcMetrics();
+    private final EventLoopWatchdog watchdog = new EventLoopWatchdog(
+            TestConfigs.mapping(EventLoopWatchdogConfig.class, Map.of("acme.grpc.event-loop-watchdog.threshold", "20ms")),
+            metrics, () -> true);
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void attributesAStallToTheBlockingFrame() throws Exception {
+        Thread eventLoop = new Thread(() -> {
+            watchdog.enter(METHOD, "half-close");
+            try {
+                blockingCallback();
+            } finally {
+                watchdog.exit();
+            }
+        });
+        eventLoop.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        watchdog.sample(System.nanoTime());
+        watchdog.sample(System.nanoTime());
+        release.countDown();
+        eventLoop.join();
+
+        assertEquals(1, watchdog.stalls(METHOD, "half-close", "EventLoopWatchdogTest.blockingCallback"),
+                "reported once per stall");
+        assertTrue(metrics.method(METHOD).eventLoopNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void ignoresShortCallbacks() {
+        assertTrue(watchdog.enter(METHOD, "message"));
+        watchdog.exit();
+
+        watchdog.sample(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+        StringBuilder out = new StringBuilder();
+        watchdog.render(out);
+        assertFalse(out.toString().contains(METHOD));
+    }
+
+    @Test
+    void onlyWatchesEventLoops() {
+        EventLoopWatchdog offLoop = new EventLoopWatchdog(TestConfigs.mapping(EventLoopWatchdogConfig.class), metrics, () -> false);
+
+        assertFalse(offLoop.enter(METHOD, "message"));
+    }
+
+    private void blockingCallback() {
+        entered.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
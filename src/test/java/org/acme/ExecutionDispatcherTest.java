@@ -0,0 +1,105 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ExecutionDispatcherTest {
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdown() {
+        worker.shutdownNow();
+        virtualThreads.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void appliesPerMethodOverrides() {
+        ExecutionDispatcher dispatcher = dispatcher(Map.of(
+                "acme.grpc.execution.mode", "worker",
+                "acme.grpc.execution.methods.\"hello.HelloGrpc/SayHello\"", "virtual-thread"));
+
+        assertEquals(ExecutionConfig.Mode.VIRTUAL_THREAD, dispatcher.mode("hello.HelloGrpc/SayHello"));
+        assertEquals(ExecutionConfig.Mode.WORKER, dispatcher.mode("hello.HelloGrpc/SayHelloBatch"));
+    }
+
+    @Test
+    void runsOnTheConfiguredThreads() {
+        ExecutionDispatcher dispatcher = dispatcher(Map.of(
+                "acme.grpc.execution.methods.\"a\"", "event-loop",
+                "acme.grpc.execution.methods.\"b\"", "virtual-thread"));
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, dispatcher.dispatch("a", Thread::currentThread).await().atMost(Duration.ofSeconds(5)));
+        Thread virtual = dispatcher.dispatch("b", Thread::currentThread).await().atMost(Duration.ofSeconds(5));
+        assertNotSame(caller, virtual);
+        assertTrue(virtual.isVirtual());
+    }
+
+    @Test
+    void skipsCallsPastTheirDeadline() {
+        ExecutionDispatcher dispatcher = dispatcher(Map.of("acme.grpc.execution.mode", "worker"));
+        AtomicBoolean ran = new AtomicBoolean();
+        Context.CancellableContext context = Context.current().withDeadline(Deadline.after(-1, TimeUnit.MILLISECONDS), scheduler);
+
+        StatusRuntimeException failure = assertThrows(StatusRuntimeException.class, () -> context.call(
+                () -> dispatcher.dispatch("a", () -> ran.getAndSet(true))).await().atMost(Duration.ofSeconds(5)));
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, failure.getStatus().getCode());
+        assertFalse(ran.get());
+        assertEquals(1, dispatcher.skipped());
+    }
+
+    @Test
+    void dropsQueuedWorkWhenTheCallIsCancelled() throws Exception {
+        ExecutionDispatcher dispatcher = dispatcher(Map.of("acme.grpc.execution.mode", "worker"));
+        CountDownLatch release = new CountDownLatch(1);
+        worker.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+        Context.CancellableContext context = Context.current().withCancellation();
+        CompletableFuture<Boolean> reply = context.call(() -> dispatcher.dispatch("a", () -> ran.getAndSet(true)))
+                .subscribeAsCompletionStage();
+
+        context.cancel(null);
+        release.countDown();
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> reply.get(5, TimeUnit.SECONDS));
+        assertEquals(Status.Code.CANCELLED, Status.fromThrowable(failure.getCause()).getCode());
+        worker.submit(() -> null).get(5, TimeUnit.SECONDS);
+        assertFalse(ran.get());
+    }
+
+    private ExecutionDispatcher dispatcher(Map<String, String> properties) {
+        return new ExecutionDispatcher(TestConfigs.mapping(ExecutionConfig.class, properties), worker, virtualThreads, null, new GrpcMetrics());
+    }
+}
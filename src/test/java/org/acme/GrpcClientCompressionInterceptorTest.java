@@ -0,0 +1,112 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.grpc.Channel;
+import io.grpc.ClientInterceptors;
+import io.grpc.Codec;
+import io.grpc.DecompressorRegistry;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GrpcClientCompressionInterceptorTest {
+
+    private static final Metadata.Key<String> GRPC_ENCODING_KEY = Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final AtomicReference<String> requestEncoding = new AtomicReference<>();
+    private Server server;
+    private ManagedChannel channel;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination();
+    }
+
+    @Test
+    void compressesOnceTheServerAdvertisedTheCodec() throws IOException {
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = stub(TestCodecs.codecs().decompressorRegistry(), Map.of());
+
+        stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+        assertNull(requestEncoding.get(), "nothing is known about the server before its first response");
+
+        stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+        assertEquals("gzip", requestEncoding.get());
+    }
+
+    @Test
+    void neverUsesCodecsTheServerDidNotAdvertise() throws IOException {
+        DecompressorRegistry identityOnly = DecompressorRegistry.emptyInstance()
+                .with(Codec.Identity.NONE, false)
+                .with(new Codec.Gzip(), false);
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = stub(identityOnly, Map.of());
+
+        stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+        stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+        assertNull(requestEncoding.get());
+    }
+
+    @Test
+    void appliesPerMethodOverrides() throws IOException {
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = stub(TestCodecs.codecs().decompressorRegistry(),
+                Map.of("acme.grpc.client-compression.methods.\"hello.HelloGrpc/SayHelloBatch\".codecs", "identity"));
+
+        stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+        stub.sayHelloBatch(HelloBatchRequest.newBuilder().addNames("Neo").build());
+        assertNull(requestEncoding.get());
+
+        stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+        assertEquals("gzip", requestEncoding.get());
+    }
+
+    private HelloGrpcGrpc.HelloGrpcBlockingStub stub(DecompressorRegistry serverRegistry, Map<String, String> properties) throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        ServerInterceptor captureEncoding = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                    ServerCallHandler<ReqT, RespT> next) {
+                requestEncoding.set(headers.get(GRPC_ENCODING_KEY));
+                return next.startCall(call, headers);
+            }
+        };
+        server = InProcessServerBuilder.forName(name)
+                .decompressorRegistry(serverRegistry)
+                .addService(ServerInterceptors.intercept(new HelloGrpcGrpc.HelloGrpcImplBase() {
+                    @Override
+                    public void sayHello(HelloRequest request, StreamObserver<HelloReply> responseObserver) {
+                        responseObserver.onNext(HelloGrpcService.greet(request.getName()));
+                        responseObserver.onCompleted();
+                    }
+
+                    @Override
+                    public void sayHelloBatch(HelloBatchRequest request, StreamObserver<HelloBatchReply> responseObserver) {
+                        responseObserver.onNext(HelloBatchReply.getDefaultInstance());
+                        responseObserver.onCompleted();
+                    }
+                }, captureEncoding))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        GrpcClientCompressionInterceptor interceptor = new GrpcClientCompressionInterceptor(
+                TestConfigs.mapping(ClientCompressionConfig.class, properties), TestCodecs.codecs());
+        Channel intercepted = ClientInterceptors.intercept(channel, interceptor);
+        return HelloGrpcGrpc.newBlockingStub(intercepted);
+    }
+}
@@ -5,8 +5,6 @@ import io.grpc.Channel;
 import io.grpc.ClientCall;
 import io.grpc.ClientInterceptor;
 import io.grpc.ClientInterceptors;
-import io.grpc.Codec;
-import io.grpc.DecompressorRegistry;
 import io.grpc.ForwardingClientCall;
 import io.grpc.ForwardingClientCallListener;
 import io.grpc.ManagedChannel;
@@ -53,6 +51,7 @@ class GrpcCompressionInterceptorIntegrationSeparateServerTest {
             return Map.of(
                     "quarkus.grpc.server.use-separate-server", "true",
                     "quarkus.grpc.server.compression", "gzip",
+                    "acme.grpc.compression.codecs", "zstd,gzip",
                     "quarkus.grpc.clients.hello-service.host", "localhost",
                     "quarkus.grpc.clients.hello-service.port", "9000"
             );
@@ -94,19 +93,18 @@ class GrpcCompressionInterceptorIntegrationSeparateServerTest {
     }
 
     /**
-     * Helper method to create a stub with custom headers and response capture
+     * Helper method to create a stub with custom headers and response capture. The request's
+     * grpc-accept-encoding is advertised by the channel, see {@link #advertising(String)}.
      */
     private HelloGrpcGrpc.HelloGrpcBlockingStub createStubWithHeaderCapture(
             Metadata requestMetadata, AtomicReference<String> responseEncoding) {
-        Channel interceptedChannel =
-                ClientInterceptors.intercept(
-                        channel, createHeaderInterceptor(requestMetadata, responseEncoding));
-        return HelloGrpcGrpc.newBlockingStub(interceptedChannel);
+        return createIdentityOnlyStub(requestMetadata, responseEncoding);
     }
 
     /**
-     * Helper method to create a stub with identity-only channel (no gzip advertised). This allows
-     * testing scenarios where the client truly does not support gzip.
+     * Helper method to create a stub whose channel advertises exactly the request's
+     * grpc-accept-encoding, or nothing without one. This allows testing scenarios where the client
+     * truly does not support gzip.
      */
     private HelloGrpcGrpc.HelloGrpcBlockingStub createIdentityOnlyStub(
             Metadata requestMetadata, AtomicReference<String> responseEncoding) {
@@ -114,13 +112,10 @@ class GrpcCompressionInterceptorIntegrationSeparateServerTest {
         String[] parts = authority.split(":");
         String host = parts[0];
         int port = Integer.parseInt(parts[1]);
-        DecompressorRegistry identityOnly =
-                DecompressorRegistry.emptyInstance()
-                        .with(Codec.Identity.NONE, false).with(new Codec.Gzip(), false); // only identity advertised
         ManagedChannel customChannel =
                 ManagedChannelBuilder.forAddress(host, port)
                         .usePlaintext()
-                        .decompressorRegistry(identityOnly)
+                        .decompressorRegistry(GrpcCompressionInterceptorIntegrationTest.advertising(requestMetadata.get(GRPC_ACCEPT_ENCODING_KEY)))
                         .build();
         Channel interceptedChannel =
                 ClientInterceptors.intercept(
@@ -296,4 +291,25 @@ class GrpcCompressionInterceptorIntegrationSeparateServerTest {
                 responseEncoding.get(),
                 "Response should be compressed with gzip when client accepts it (even with whitespace)");
     }
+
+    @Test
+    void shouldCompressWithZstdWhenClientPrefersZstd() {
+        // Given: Client accepts zstd and gzip, and the separate server encodes both
+        Metadata metadata = new Metadata();
+        metadata.put(GRPC_ACCEPT_ENCODING_KEY, "zstd,gzip");
+        AtomicReference<String> responseEncoding = new AtomicReference<>();
+
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub =
+                createStubWithHeaderCapture(metadata, responseEncoding);
+
+        // When: Making a gRPC call
+        HelloReply response = stub.sayHello(HelloRequest.newBuilder().setName("Name").build());
+
+        // Then: Response should be compressed with the preferred codec
+        assertNotNull(response);
+        assertEquals(
+                "zstd",
+                responseEncoding.get(),
+                "Separate server should negotiate every registered codec");
+    }
 }
@@ -19,6 +19,9 @@ import io.quarkus.test.junit.QuarkusTestProfile;
 import io.quarkus.test.junit.TestProfile;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -53,6 +56,7 @@ class GrpcCompressionInterceptorIntegrationTest {
             return Map.of(
                     "quarkus.grpc.server.use-separate-server", "false",
                     "quarkus.grpc.server.compression", "gzip",
+                    "acme.grpc.compression.codecs", "zstd,gzip",
                     "quarkus.grpc.clients.hello-service.host", "localhost",
                     "quarkus.grpc.clients.hello-service.port", "9000"
             );
@@ -94,19 +98,18 @@ class GrpcCompressionInterceptorIntegrationTest {
     }
 
     /**
-     * Helper method to create a stub with custom headers and response capture
+     * Helper method to create a stub with custom headers and response capture. The request's
+     * grpc-accept-encoding is advertised by the channel, see {@link #advertising(String)}.
      */
     private HelloGrpcGrpc.HelloGrpcBlockingStub createStubWithHeaderCapture(
             Metadata requestMetadata, AtomicReference<String> responseEncoding) {
-        Channel interceptedChannel =
-                ClientInterceptors.intercept(
-                        channel, createHeaderInterceptor(requestMetadata, responseEncoding));
-        return HelloGrpcGrpc.newBlockingStub(interceptedChannel);
+        return createIdentityOnlyStub(requestMetadata, responseEncoding);
     }
 
     /**
-     * Helper method to create a stub with identity-only channel (no gzip advertised). This allows
-     * testing scenarios where the client truly does not support gzip.
+     * Helper method to create a stub whose channel advertises exactly the request's
+     * grpc-accept-encoding, or nothing without one. This allows testing scenarios where the client
+     * truly does not support gzip.
      */
     private HelloGrpcGrpc.HelloGrpcBlockingStub createIdentityOnlyStub(
             Metadata requestMetadata, AtomicReference<String> responseEncoding) {
@@ -114,13 +117,10 @@ class GrpcCompressionInterceptorIntegrationTest {
         String[] parts = authority.split(":");
         String host = parts[0];
         int port = Integer.parseInt(parts[1]);
-        DecompressorRegistry identityOnly =
-                DecompressorRegistry.emptyInstance()
-                        .with(Codec.Identity.NONE, false).with(new Codec.Gzip(), false); // only identity advertised
         ManagedChannel customChannel =
                 ManagedChannelBuilder.forAddress(host, port)
                         .usePlaintext()
-                        .decompressorRegistry(identityOnly)
+                        .decompressorRegistry(advertising(requestMetadata.get(GRPC_ACCEPT_ENCODING_KEY)))
                         .build();
         Channel interceptedChannel =
                 ClientInterceptors.intercept(
@@ -128,6 +128,46 @@ class GrpcCompressionInterceptorIntegrationTest {
         return HelloGrpcGrpc.newBlockingStub(interceptedChannel);
     }
 
+    /**
+     * grpc-java clients replace any grpc-accept-encoding set by an interceptor with the encodings
+     * their {@link DecompressorRegistry} advertises, so the header must be advertised to reach the
+     * server. Each comma-separated entry is advertised verbatim, whitespace included, and decodes
+     * with the codec it names; gzip and zstd responses can always be decoded.
+     */
+    static DecompressorRegistry advertising(String acceptEncoding) {
+        CompressionCodecs codecs = TestCodecs.codecs();
+        DecompressorRegistry registry = DecompressorRegistry.emptyInstance()
+                .with(Codec.Identity.NONE, false)
+                .with(codecs.get("gzip"), false)
+                .with(codecs.get("zstd"), false);
+        if (acceptEncoding == null) {
+            return registry;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            Codec codec = codecs.get(entry.trim());
+            registry = registry.with(new AdvertisedCodec(entry, codec != null ? codec : Codec.Identity.NONE), true);
+        }
+        return registry;
+    }
+
+    private record AdvertisedCodec(String encoding, Codec codec) implements Codec {
+
+        @Override
+        public String getMessageEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public OutputStream compress(OutputStream os) throws IOException {
+            return codec.compress(os);
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) throws IOException {
+            return codec.decompress(is);
+        }
+    }
+
     @Test
     void shouldCompressResponseWhenClientAcceptsGzip() {
         // Given: Client accepts gzip compression
@@ -296,4 +336,25 @@ class GrpcCompressionInterceptorIntegrationTest {
                 responseEncoding.get(),
                 "Response should be compressed with gzip when client accepts it (even with whitespace)");
     }
+
+    @Test
+    void shouldFallBackToGzipWhenClientPrefersZstd() {
+        // Given: Client accepts zstd and gzip, but the shared server can only encode gzip
+        Metadata metadata = new Metadata();
+        metadata.put(GRPC_ACCEPT_ENCODING_KEY, "zstd,gzip");
+        AtomicReference<String> responseEncoding = new AtomicReference<>();
+
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub =
+                createStubWithHeaderCapture(metadata, responseEncoding);
+
+        // When: Making a gRPC call
+        HelloReply response = stub.sayHello(HelloRequest.newBuilder().setName("Name").build());
+
+        // Then: Response should be compressed with gzip, not zstd
+        assertNotNull(response);
+        assertEquals(
+                "gzip",
+                responseEncoding.get(),
+                "Shared server should only negotiate codecs it can encode");
+    }
 }
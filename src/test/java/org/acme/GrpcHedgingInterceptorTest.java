@@ -0,0 +1,212 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptors;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GrpcHedgingInterceptorTest {
+
+    private static final HelloRequest NEO = HelloRequest.newBuilder().setName("Neo").build();
+
+    private final ScheduledExecutorService latency = Executors.newSingleThreadScheduledExecutor();
+    private final List<Server> servers = new ArrayList<>();
+    private final CountDownLatch slowCancelled = new CountDownLatch(1);
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private PooledChannel pool;
+    private GrpcHedgingInterceptor interceptor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdown(Duration.ofSeconds(1));
+        for (Server server : servers) {
+            server.shutdownNow().awaitTermination();
+        }
+        interceptor.stop();
+        latency.shutdownNow();
+    }
+
+    @Test
+    void hedgesAroundTheSlowInstanceAndCancelsIt() throws Exception {
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = stub(Map.of());
+
+        long start = System.nanoTime();
+        HelloReply reply = stub.withDeadlineAfter(5, TimeUnit.SECONDS).sayHello(NEO);
+
+        assertEquals("Hello Neo!", reply.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "answered by the fast instance");
+        assertEquals(1, slowCalls.get());
+        assertEquals(1, interceptor.hedges());
+        assertEquals(1, interceptor.hedgeWins());
+        assertTrue(slowCancelled.await(1, TimeUnit.SECONDS), "the losing attempt is cancelled");
+    }
+
+    @Test
+    void stopsHedgingWhenTheBudgetIsSpent() throws Exception {
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = stub(Map.of("acme.grpc.hedging.max-tokens", "1"));
+
+        stub.sayHello(NEO);
+        long start = System.nanoTime();
+        stub.sayHello(NEO);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.SECONDS.toNanos(2), "waited for the slow instance");
+        assertEquals(1, interceptor.hedges());
+        assertEquals(1, interceptor.throttled());
+    }
+
+    @Test
+    void leavesOtherMethodsAlone() throws Exception {
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = stub(Map.of("acme.grpc.hedging.methods", "hello.HelloGrpc/SayHelloBatch"));
+
+        long start = System.nanoTime();
+        stub.sayHello(NEO);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, interceptor.hedges());
+    }
+
+    @Test
+    void retriesUnavailable() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ServerInterceptor failFirst = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                    ServerCallHandler<ReqT, RespT> next) {
+                if (calls.getAndIncrement() == 0) {
+                    call.close(Status.UNAVAILABLE, new Metadata());
+                    return new ServerCall.Listener<>() {
+                    };
+                }
+                return next.startCall(call, headers);
+            }
+        };
+        pool = new PooledChannel(List.of(channel(service(Runnable::run), failFirst)));
+        interceptor = new GrpcHedgingInterceptor(config(Map.of()));
+        HelloGrpcGrpc.HelloGrpcBlockingStub stub = HelloGrpcGrpc.newBlockingStub(ClientInterceptors.intercept(pool, interceptor));
+
+        assertEquals("Hello Neo!", stub.sayHello(NEO).getMessage());
+        assertEquals(2, calls.get());
+        assertEquals(1, interceptor.retries());
+    }
+
+    @Test
+    void cancelsTheWinnerAfterItsHeaders() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ServerInterceptor headersOnly = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                    ServerCallHandler<ReqT, RespT> next) {
+                call.sendHeaders(new Metadata());
+                return new ServerCall.Listener<>() {
+                    @Override
+                    public void onCancel() {
+                        cancelled.countDown();
+                    }
+                };
+            }
+        };
+        pool = new PooledChannel(List.of(channel(service(Runnable::run), headersOnly)));
+        interceptor = new GrpcHedgingInterceptor(config(Map.of()));
+        ClientCall<HelloRequest, HelloReply> call = ClientInterceptors.intercept(pool, interceptor)
+                .newCall(HelloGrpcGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        CountDownLatch headers = new CountDownLatch(1);
+        call.start(new ClientCall.Listener<>() {
+            @Override
+            public void onHeaders(Metadata metadata) {
+                headers.countDown();
+            }
+        }, new Metadata());
+        call.request(1);
+        call.sendMessage(NEO);
+        call.halfClose();
+        assertTrue(headers.await(1, TimeUnit.SECONDS));
+
+        call.cancel("caller went away", null);
+
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS), "the cancellation reaches the committed attempt");
+    }
+
+    /**
+     * A pool of two {@link HelloGrpcService}s whose least-outstanding pick sends the first attempt
+     * to one whose worker starts handlers 3 seconds late and the hedge to one that answers right
+     * away.
+     */
+    private HelloGrpcGrpc.HelloGrpcBlockingStub stub(Map<String, String> properties) throws IOException {
+        ServerInterceptor observeSlow = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                    ServerCallHandler<ReqT, RespT> next) {
+                slowCalls.incrementAndGet();
+                return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+                    @Override
+                    public void onCancel() {
+                        slowCancelled.countDown();
+                        super.onCancel();
+                    }
+                };
+            }
+        };
+        ManagedChannel slow = channel(service(task -> latency.schedule(task, 3, TimeUnit.SECONDS)), observeSlow);
+        ManagedChannel fast = channel(service(Runnable::run));
+        pool = new PooledChannel(List.of(slow, fast));
+        interceptor = new GrpcHedgingInterceptor(config(properties));
+        Channel intercepted = ClientInterceptors.intercept(pool, interceptor);
+        return HelloGrpcGrpc.newBlockingStub(intercepted);
+    }
+
+    /**
+     * @return the application's service with its handlers offloaded to {@code worker}
+     */
+    private static HelloGrpcService service(Executor worker) {
+        ExecutionDispatcher dispatcher = new ExecutionDispatcher(
+                TestConfigs.mapping(ExecutionConfig.class, Map.of("acme.grpc.execution.mode", "worker")),
+                worker, worker, null, new GrpcMetrics());
+        return new HelloGrpcService(new ReplyCache(TestConfigs.mapping(ReplyCacheConfig.class)), dispatcher);
+    }
+
+    private ManagedChannel channel(HelloGrpcService service, ServerInterceptor... interceptors) throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        servers.add(InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, interceptors))
+                .build()
+                .start());
+        return InProcessChannelBuilder.forName(name).build();
+    }
+
+    private static HedgingConfig config(Map<String, String> properties) {
+        Map<String, String> all = new HashMap<>(properties);
+        all.put("acme.grpc.hedging.enabled", "true");
+        all.put("acme.grpc.hedging.initial-delay", "50ms");
+        return TestConfigs.mapping(HedgingConfig.class, all);
+    }
+}
@@ -0,0 +1,56 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jdk.jfr.consumer.RecordedEvent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * On the separate server responses go through {@link ProfiledCodec}, so the events also carry the
+ * compression time and wire bytes.
+ */
+@QuarkusTest
+@TestProfile(GrpcJfrSeparateServerTest.SeparateServerProfile.class)
+class GrpcJfrSeparateServerTest {
+
+    @GrpcClient
+    HelloGrpc helloGrpc;
+
+    public static class SeparateServerProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.grpc.server.use-separate-server", "true");
+        }
+    }
+
+    @AfterEach
+    void disable() {
+        GrpcJfr.setEnabled(false);
+    }
+
+    @Test
+    void recordsCompressionCostAndWireBytes() throws IOException {
+        GrpcJfr.setEnabled(true);
+        List<RecordedEvent> events = GrpcJfrTest.record(helloGrpc, GrpcJfrTest.COMPRESSIBLE);
+
+        RecordedEvent rpc = GrpcJfrTest.rpc(events);
+        assertEquals("gzip", rpc.getString("codec"));
+        assertEquals(1, rpc.getInt("compressedMessages"));
+        assertTrue(rpc.getLong("responseWireBytes") > 0);
+        assertTrue(rpc.getLong("responseWireBytes") < rpc.getLong("responseBytes"), "a repetitive reply shrinks");
+        assertTrue(rpc.getLong("compressionTime") > 0);
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("org.acme.grpc.Compression")
+                && "gzip".equals(e.getString("codec"))));
+    }
+}
@@ -0,0 +1,121 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class GrpcJfrTest {
+
+    /**
+     * Long enough for its reply to exceed {@code acme.grpc.compression.min-message-size}.
+     */
+    static final HelloRequest COMPRESSIBLE = HelloRequest.newBuilder().setName("n".repeat(4096)).build();
+
+    @GrpcClient
+    HelloGrpc helloGrpc;
+
+    @TestHTTPResource("/")
+    URI application;
+
+    @AfterEach
+    void disable() {
+        GrpcJfr.setEnabled(false);
+    }
+
+    @Test
+    void recordsRpcAndSerializationEvents() throws IOException {
+        GrpcJfr.setEnabled(true);
+        List<RecordedEvent> events = record(helloGrpc, HelloRequest.newBuilder().setName("Neo").build());
+
+        RecordedEvent rpc = rpc(events);
+        assertEquals("OK", rpc.getString("status"));
+        assertTrue(rpc.getDuration().toNanos() >= rpc.getLong("handlerTime"));
+        assertTrue(rpc.getLong("responseBytes") > 0);
+        assertNull(rpc.getString("codec"), "a reply below min-message-size is not compressed");
+        assertEquals(0, rpc.getInt("compressedMessages"));
+        assertEquals(rpc.getLong("responseBytes"), rpc.getLong("responseWireBytes"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("org.acme.grpc.Serialization")
+                && e.getLong("bytes") > 0));
+    }
+
+    @Test
+    void recordsTheCodecTheSharedServerCompressedWith() throws IOException {
+        GrpcJfr.setEnabled(true);
+        List<RecordedEvent> events = record(helloGrpc, COMPRESSIBLE);
+
+        RecordedEvent rpc = rpc(events);
+        assertEquals("gzip", rpc.getString("codec"));
+        assertEquals(1, rpc.getInt("compressedMessages"));
+        assertEquals(0, rpc.getLong("responseWireBytes"), "Vert.x compresses gzip without reporting its output");
+        assertEquals(0, rpc.getLong("compressionTime"));
+    }
+
+    @Test
+    void keepsTheSwitchOffTheApplicationPort() throws Exception {
+        HttpResponse<String> response;
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            response = http.send(HttpRequest.newBuilder(application.resolve("q/grpc-jfr?enabled=true"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        assertEquals(404, response.statusCode());
+        assertFalse(GrpcJfr.enabled());
+    }
+
+    @Test
+    void emitsNothingWhileDisabled() throws IOException {
+        List<RecordedEvent> events = record(helloGrpc, HelloRequest.newBuilder().setName("Neo").build());
+
+        assertFalse(events.stream().anyMatch(e -> e.getEventType().getName().equals("org.acme.grpc.Rpc")));
+    }
+
+    /**
+     * @return the gRPC events recorded while {@code client} sent {@code request}
+     */
+    static List<RecordedEvent> record(HelloGrpc client, HelloRequest request) throws IOException {
+        Path file = Files.createTempFile("grpc", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.acme.grpc.Rpc").withoutThreshold();
+            recording.enable("org.acme.grpc.Serialization").withoutThreshold();
+            recording.enable("org.acme.grpc.Compression").withoutThreshold();
+            recording.start();
+            client.sayHello(request).await().atMost(Duration.ofSeconds(5));
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        return events;
+    }
+
+    static RecordedEvent rpc(List<RecordedEvent> events) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals("org.acme.grpc.Rpc"))
+                .filter(e -> "hello.HelloGrpc/SayHello".equals(e.getString("method")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no RPC event in " + events));
+    }
+}
@@ -0,0 +1,75 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * On the separate server {@link GrpcMetricsCustomizer}'s stream tracer sees every path a client
+ * sends, registered or not.
+ */
+@QuarkusTest
+@TestProfile(GrpcMetricsSeparateServerTest.SeparateServerProfile.class)
+class GrpcMetricsSeparateServerTest {
+
+    @GrpcClient("system-service")
+    Channel channel;
+
+    @Inject
+    GrpcMetrics metrics;
+
+    public static class SeparateServerProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.grpc.server.use-separate-server", "true");
+        }
+    }
+
+    @Test
+    void countsWireBytesOfRegisteredMethods() {
+        HelloRequest request = HelloRequest.newBuilder().setName("Neo").build();
+        ClientCalls.blockingUnaryCall(channel, HelloGrpcGrpc.getSayHelloMethod(), CallOptions.DEFAULT, request);
+
+        assertTrue(render().lines().anyMatch(line -> line.startsWith("grpc_server_received_wire_bytes_total{method=\"hello.HelloGrpc/SayHello\"}")
+                && !line.endsWith(" 0")));
+    }
+
+    @Test
+    void ignoresUnregisteredPaths() {
+        long methods = render().lines().filter(line -> line.startsWith("grpc_server_started_total{")).count();
+        MethodDescriptor<HelloRequest, HelloReply> unknown = HelloGrpcGrpc.getSayHelloMethod().toBuilder()
+                .setFullMethodName("hello.HelloGrpc/Unknown" + System.nanoTime())
+                .build();
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> ClientCalls.blockingUnaryCall(
+                channel, unknown, CallOptions.DEFAULT, HelloRequest.newBuilder().setName("Neo").build()));
+
+        assertEquals(Status.Code.UNIMPLEMENTED, e.getStatus().getCode());
+        String rendered = render();
+        assertFalse(rendered.contains(unknown.getFullMethodName()));
+        assertEquals(methods, rendered.lines().filter(line -> line.startsWith("grpc_server_started_total{")).count());
+    }
+
+    private String render() {
+        StringBuilder out = new StringBuilder();
+        metrics.render(out);
+        return out.toString();
+    }
+}
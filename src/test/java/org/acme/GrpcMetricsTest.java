@@ -0,0 +1,25 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GrpcMetricsTest {
+
+    @Test
+    void escapesLabelValues() {
+        assertEquals("a\\\\b\\\"c\\nd", GrpcMetrics.label(new StringBuilder(), "a\\b\"c\nd").toString());
+    }
+
+    @Test
+    void keepsOneLinePerSampleWhateverTheMethodName() {
+        GrpcMetrics metrics = new GrpcMetrics();
+        metrics.method("x\"} 1\nfake_metric{method=\"y").started();
+        StringBuilder out = new StringBuilder();
+        metrics.render(out);
+
+        assertTrue(out.toString().lines().noneMatch(line -> line.startsWith("fake_metric")));
+        assertTrue(out.toString().contains("grpc_server_started_total{method=\"x\\\"} 1\\nfake_metric{method=\\\"y\"} 1\n"));
+    }
+}
@@ -0,0 +1,65 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.StatusRuntimeException;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The pooled connections follow {@code quarkus.grpc.clients.hello-service} like the
+ * {@code @GrpcClient} channel does.
+ */
+@QuarkusTest
+@TestProfile(HelloChannelPoolTest.PoolProfile.class)
+class HelloChannelPoolTest {
+
+    @Inject
+    @PooledGrpcClient
+    HelloGrpcGrpc.HelloGrpcBlockingStub pooled;
+
+    @Inject
+    HelloChannelPool pool;
+
+    public static class PoolProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "acme.grpc.channel-pool.enabled", "true",
+                    "acme.grpc.channel-pool.size", "2",
+                    // this application's own gRPC port only opens after the startup warm-up
+                    "acme.grpc.channel-pool.warmup-timeout", "10ms",
+                    "quarkus.grpc.clients.hello-service.max-inbound-message-size", "64");
+        }
+    }
+
+    private HelloGrpcGrpc.HelloGrpcBlockingStub hello() {
+        return pooled.withWaitForReady().withDeadlineAfter(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void greetsOverEveryConnection() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Hello Neo!", hello().sayHello(HelloRequest.newBuilder().setName("Neo").build()).getMessage());
+        }
+        assertEquals(2, pool.pool().size());
+    }
+
+    @Test
+    void appliesTheClientConfiguration() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> hello().sayHello(HelloRequest.newBuilder().setName("N".repeat(100)).build()));
+
+        // RESOURCE_EXHAUSTED, or CANCELLED caused by it when the reply was compressed
+        assertTrue(e.getStatus().toString().contains("exceeds maximum size 64"), e.getStatus().toString());
+    }
+}
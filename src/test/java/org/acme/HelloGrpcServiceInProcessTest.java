@@ -0,0 +1,51 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Calls {@link HelloGrpcService} over an in-process channel instead of a socket.
+ */
+@QuarkusTest
+@TestProfile(HelloGrpcServiceInProcessTest.InProcessProfile.class)
+class HelloGrpcServiceInProcessTest {
+
+    @GrpcClient
+    HelloGrpc helloGrpc;
+
+    public static class InProcessProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.grpc.server.use-separate-server", "true",
+                    "quarkus.grpc.server.in-process.enabled", "true",
+                    "quarkus.grpc.clients.helloGrpc.in-process.enabled", "true",
+                    "acme.grpc.reply-cache.enabled", "true");
+        }
+    }
+
+    @Test
+    void greets() {
+        HelloReply reply = helloGrpc.sayHello(HelloRequest.newBuilder().setName("Neo").build()).await().atMost(Duration.ofSeconds(5));
+        assertEquals("Hello Neo!", reply.getMessage());
+    }
+
+    @Test
+    void passesRepliesByReference() {
+        HelloRequest request = HelloRequest.newBuilder().setName("Trinity").build();
+        HelloReply first = helloGrpc.sayHello(request).await().atMost(Duration.ofSeconds(5));
+        HelloReply second = helloGrpc.sayHello(request).await().atMost(Duration.ofSeconds(5));
+
+        assertSame(first, second, "the cached reply instance reaches the client without being copied");
+    }
+}
@@ -3,9 +3,11 @@ package org.acme;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.time.Duration;
+import java.util.List;
 
 import io.quarkus.grpc.GrpcClient;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
 
 import org.junit.jupiter.api.Test;
 
@@ -21,4 +23,39 @@ class HelloGrpcServiceTest {
         assertEquals("Hello Neo!", reply.getMessage());
     }
 
+    @Test
+    void testHelloStream() {
+        List<String> messages = helloGrpc
+                .sayHelloStream(HelloStreamRequest.newBuilder().addNames("Neo").addNames("Trinity").build())
+                .map(HelloReply::getMessage)
+                .collect().asList().await().atMost(Duration.ofSeconds(5));
+        assertEquals(List.of("Hello Neo!", "Hello Trinity!"), messages);
+    }
+
+    @Test
+    void testHelloBidi() {
+        List<String> messages = helloGrpc
+                .sayHelloBidi(Multi.createFrom().range(0, 1000)
+                        .map(i -> HelloRequest.newBuilder().setName("n" + i).build()))
+                .map(HelloReply::getMessage)
+                .collect().asList().await().atMost(Duration.ofSeconds(10));
+        assertEquals(1000, messages.size());
+        assertEquals("Hello n999!", messages.get(999));
+    }
+
+    @Test
+    void testHelloBatch() {
+        for (int size : new int[] { 3, HelloGrpcService.PARALLEL_BATCH_THRESHOLD * 3 }) {
+            HelloBatchRequest.Builder request = HelloBatchRequest.newBuilder();
+            for (int i = 0; i < size; i++) {
+                request.addNames("n" + i);
+            }
+            HelloBatchReply reply = helloGrpc.sayHelloBatch(request.build()).await().atMost(Duration.ofSeconds(10));
+            assertEquals(size, reply.getMessagesCount());
+            for (int i = 0; i < size; i++) {
+                assertEquals("Hello n" + i + "!", reply.getMessages(i));
+            }
+        }
+    }
+
 }
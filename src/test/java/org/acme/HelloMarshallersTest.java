@@ -0,0 +1,164 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.ClientInterceptors;
+import io.grpc.Codec;
+import io.grpc.Drainable;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HelloMarshallersTest {
+
+    private final MethodDescriptor.Marshaller<HelloReply> marshaller =
+            HelloMarshallers.pooled(HelloGrpcGrpc.getSayHelloMethod().getResponseMarshaller());
+
+    private final HelloReply reply = HelloReply.newBuilder().setMessage("Hello Neo!").build();
+
+    @Test
+    void drainsTheSameBytesAsProtobuf() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = ((Drainable) marshaller.stream(reply)).drainTo(out);
+
+        assertEquals(reply.getSerializedSize(), written);
+        assertEquals(reply, HelloReply.parseFrom(out.toByteArray()));
+    }
+
+    @Test
+    void drainsKnownBytesInsteadOfSerializing() throws IOException {
+        byte[] known = HelloReply.newBuilder().setMessage("Hello again!").build().toByteArray();
+        MethodDescriptor.Marshaller<HelloReply> withKnownBytes =
+                new HelloMarshallers.PooledProtoMarshaller<>(HelloReply.getDefaultInstance(), message -> message == reply ? known : null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = ((Drainable) withKnownBytes.stream(reply)).drainTo(out);
+
+        assertEquals(known.length, written);
+        assertArrayEquals(known, out.toByteArray());
+    }
+
+    @Test
+    void parsesSerializedBytes() {
+        assertEquals(reply, marshaller.parse(new ByteArrayInputStream(reply.toByteArray())));
+    }
+
+    @Test
+    void drainsMessagesLargerThanTheScratchArray() throws IOException {
+        HelloReply large = HelloReply.newBuilder().setMessage("n".repeat(100_000)).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = ((Drainable) marshaller.stream(large)).drainTo(out);
+
+        assertEquals(large.getSerializedSize(), written);
+        assertEquals(large, HelloReply.parseFrom(out.toByteArray()));
+    }
+
+    @Test
+    void doesNotTrustAvailableOnStreamsOfUnknownLength() {
+        InputStream hinted = new FilterInputStream(new ByteArrayInputStream(reply.toByteArray())) {
+            @Override
+            public int available() {
+                return 0;
+            }
+        };
+
+        assertEquals(reply, marshaller.parse(hinted));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "gzip", "zstd", "lz4", "snappy" })
+    void parsesDecompressingStreams(String encoding) throws IOException {
+        Codec codec = TestCodecs.codecs().get(encoding);
+        byte[] compressed = TestCodecs.compress(codec, reply.toByteArray());
+
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed))) {
+            assertEquals(reply, marshaller.parse(in));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "lz4", "snappy", "zstd" })
+    void roundTripsOverASocket(String encoding) throws Exception {
+        CompressionCodecs codecs = TestCodecs.codecs();
+        ServerInterceptor compressReplies = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                    ServerCallHandler<ReqT, RespT> next) {
+                call.setCompression(encoding);
+                return next.startCall(call, headers);
+            }
+        };
+        Server server = NettyServerBuilder.forPort(0)
+                .compressorRegistry(codecs.compressorRegistry())
+                .decompressorRegistry(codecs.decompressorRegistry())
+                .addService(ServerInterceptors.intercept(HelloMarshallers.rebind(new HelloGrpcGrpc.HelloGrpcImplBase() {
+                    @Override
+                    public void sayHello(HelloRequest request, StreamObserver<HelloReply> responseObserver) {
+                        responseObserver.onNext(HelloGrpcService.greet(request.getName()));
+                        responseObserver.onCompleted();
+                    }
+                }.bindService()), compressReplies))
+                .build()
+                .start();
+        ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+                .usePlaintext()
+                .compressorRegistry(codecs.compressorRegistry())
+                .decompressorRegistry(codecs.decompressorRegistry())
+                .build();
+        try {
+            HelloGrpcGrpc.HelloGrpcBlockingStub stub = HelloGrpcGrpc.newBlockingStub(
+                    ClientInterceptors.intercept(channel, new PooledMarshallerClientInterceptor<>()))
+                    .withCompression(encoding);
+
+            assertEquals("Hello Neo!", stub.sayHello(HelloRequest.newBuilder().setName("Neo").build()).getMessage());
+        } finally {
+            channel.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination();
+        }
+    }
+
+    @Test
+    void passesUnreadMessagesByReference() {
+        assertSame(reply, marshaller.parse(marshaller.stream(reply)));
+    }
+
+    @Test
+    void pooledDescriptorKeepsTheMethod() {
+        MethodDescriptor<HelloRequest, HelloReply> pooled = HelloMarshallers.pooled(HelloGrpcGrpc.getSayHelloMethod());
+
+        assertEquals(HelloGrpcGrpc.getSayHelloMethod().getFullMethodName(), pooled.getFullMethodName());
+        assertEquals(HelloGrpcGrpc.getSayHelloMethod().getType(), pooled.getType());
+        assertEquals(HelloMarshallers.PooledProtoMarshaller.class, pooled.getRequestMarshaller().getClass());
+    }
+
+    @Test
+    void rebindsEveryMethod() {
+        ServerServiceDefinition original = new HelloGrpcService(new ReplyCache(TestConfigs.mapping(ReplyCacheConfig.class)), null).bindService();
+        ServerServiceDefinition rebound = HelloMarshallers.rebind(original);
+
+        assertEquals(original.getMethods().size(), rebound.getMethods().size());
+        rebound.getMethods().forEach(method -> assertEquals(HelloMarshallers.PooledProtoMarshaller.class,
+                method.getMethodDescriptor().getResponseMarshaller().getClass()));
+    }
+}
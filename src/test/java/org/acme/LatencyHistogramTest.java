@@ -0,0 +1,58 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguous() {
+        for (int index = 1; index < LatencyHistogram.BUCKETS; index++) {
+            long lowest = LatencyHistogram.highestEquivalentValue(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.index(lowest));
+            assertEquals(index, LatencyHistogram.index(LatencyHistogram.highestEquivalentValue(index)));
+        }
+    }
+
+    @Test
+    void reportsPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.count());
+        assertWithin(50_000, snapshot.valueAt(0.5));
+        assertWithin(99_000, snapshot.valueAt(0.99));
+        assertWithin(99_900, snapshot.valueAt(0.999));
+    }
+
+    @Test
+    void mergesSnapshotsAndResets() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(30);
+
+        LatencyHistogram.Snapshot merged = first.snapshot().merge(second.snapshot());
+        assertEquals(2, merged.count());
+        assertEquals(40, merged.sum());
+        assertEquals(30, merged.valueAt(1.0));
+
+        first.reset();
+        assertEquals(0, first.snapshot().count());
+        assertEquals(0, first.snapshot().sum());
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        assertEquals(0, new LatencyHistogram().snapshot().valueAt(0.99));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.04, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,104 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PooledChannelTest {
+
+    private final BlockingQueue<StreamObserver<HelloReply>> pending = new LinkedBlockingQueue<>();
+    private Server server;
+    private PooledChannel pool;
+
+    @BeforeEach
+    void setup() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new HelloGrpcGrpc.HelloGrpcImplBase() {
+                    @Override
+                    public void sayHello(HelloRequest request, StreamObserver<HelloReply> responseObserver) {
+                        pending.add(responseObserver);
+                    }
+                })
+                .build()
+                .start();
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            channels.add(InProcessChannelBuilder.forName(name).build());
+        }
+        pool = new PooledChannel(channels);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdown(Duration.ofSeconds(1));
+        server.shutdownNow().awaitTermination();
+    }
+
+    @Test
+    void takesIdleChannelsInTurn() throws Exception {
+        assertTrue(pool.warmup(Duration.ofSeconds(1)));
+        HelloGrpcGrpc.HelloGrpcFutureStub stub = HelloGrpcGrpc.newFutureStub(pool);
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < pool.size(); i++) {
+            ListenableFuture<HelloReply> reply = stub.sayHello(HelloRequest.newBuilder().setName("Neo").build());
+            for (int index = 0; index < pool.size(); index++) {
+                if (pool.outstanding(index) == 1) {
+                    used.add(index);
+                }
+            }
+            StreamObserver<HelloReply> observer = pending.poll(1, TimeUnit.SECONDS);
+            observer.onNext(HelloReply.newBuilder().setMessage("Hello Neo!").build());
+            observer.onCompleted();
+            reply.get(1, TimeUnit.SECONDS);
+        }
+
+        assertEquals(pool.size(), used.size(), "one call at a time still uses every channel");
+    }
+
+    @Test
+    void spreadsCallsOverLeastLoadedChannels() throws Exception {
+        assertTrue(pool.warmup(Duration.ofSeconds(1)));
+        HelloGrpcGrpc.HelloGrpcFutureStub stub = HelloGrpcGrpc.newFutureStub(pool);
+        List<ListenableFuture<HelloReply>> replies = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            replies.add(stub.sayHello(HelloRequest.newBuilder().setName("Neo").build()));
+        }
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(2, pool.outstanding(i));
+        }
+
+        for (int i = 0; i < replies.size(); i++) {
+            StreamObserver<HelloReply> observer = pending.poll(1, TimeUnit.SECONDS);
+            observer.onNext(HelloReply.newBuilder().setMessage("Hello Neo!").build());
+            observer.onCompleted();
+        }
+        for (ListenableFuture<HelloReply> reply : replies) {
+            assertEquals("Hello Neo!", reply.get(1, TimeUnit.SECONDS).getMessage());
+        }
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(0, pool.outstanding(i));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.Test;
+
+class PooledGzipCodecTest {
+
+    private static final byte[] PAYLOAD = "Hello Neo! ".repeat(2000).getBytes(StandardCharsets.UTF_8);
+
+    private final PooledGzipCodec codec = new PooledGzipCodec(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, 4);
+
+    @Test
+    void isReadableByJdkGzip() throws IOException {
+        byte[] compressed = TestCodecs.compress(codec, PAYLOAD);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(PAYLOAD, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void readsJdkGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(PAYLOAD);
+        }
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertArrayEquals(PAYLOAD, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void reusesContexts() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            byte[] compressed = TestCodecs.compress(codec, PAYLOAD);
+            try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed))) {
+                assertArrayEquals(PAYLOAD, in.readAllBytes());
+            }
+        }
+        assertEquals(2, codec.created());
+        assertEquals(198, codec.reused());
+    }
+
+    @Test
+    void sharesContextsWithVirtualThreads() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Thread thread = Thread.ofVirtual().start(() -> {
+                try {
+                    TestCodecs.compress(codec, PAYLOAD);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            thread.join();
+        }
+        assertEquals(1, codec.created());
+        assertEquals(19, codec.reused());
+    }
+
+    @Test
+    void keepsAtMostPoolSizeIdleContexts() throws IOException {
+        List<OutputStream> streams = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            streams.add(codec.compress(new ByteArrayOutputStream()));
+        }
+        for (OutputStream stream : streams) {
+            stream.close();
+        }
+        streams.clear();
+        for (int i = 0; i < 6; i++) {
+            streams.add(codec.compress(new ByteArrayOutputStream()));
+        }
+
+        assertEquals(8, codec.created());
+        assertEquals(4, codec.reused());
+    }
+
+    @Test
+    void rejectsCorruptTrailer() throws IOException {
+        byte[] compressed = TestCodecs.compress(codec, PAYLOAD);
+        compressed[compressed.length - 5] ^= 1;
+        try (InputStream in = codec.decompress(new ByteArrayInputStream(compressed))) {
+            assertThrows(ZipException.class, in::readAllBytes);
+        }
+    }
+}
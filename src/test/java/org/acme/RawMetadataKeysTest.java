@@ -0,0 +1,61 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.grpc.Metadata;
+
+import org.junit.jupiter.api.Test;
+
+class RawMetadataKeysTest {
+
+    private static final Metadata.Key<String> USER_AGENT = Metadata.Key.of("user-agent", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Test
+    void internsKeys() {
+        assertSame(RawMetadataKeys.key("user-agent"), RawMetadataKeys.key("user-agent"));
+    }
+
+    @Test
+    void returnsStoredBytesWithoutCopying() {
+        Metadata headers = new Metadata();
+        headers.put(USER_AGENT, "grpc-java");
+
+        byte[] first = headers.get(RawMetadataKeys.key("user-agent"));
+        assertArrayEquals("grpc-java".getBytes(StandardCharsets.US_ASCII), first);
+        assertSame(first, headers.get(RawMetadataKeys.key("user-agent")));
+        assertNull(headers.get(RawMetadataKeys.key("x-missing")));
+    }
+
+    @Test
+    void seesHeadersChangedBetweenLookups() {
+        Metadata headers = new Metadata();
+        headers.put(USER_AGENT, "grpc-java");
+        assertArrayEquals("grpc-java".getBytes(StandardCharsets.US_ASCII), headers.get(RawMetadataKeys.key("user-agent")));
+
+        headers.removeAll(USER_AGENT);
+        assertNull(headers.get(RawMetadataKeys.key("user-agent")));
+
+        headers.put(USER_AGENT, "a");
+        headers.put(USER_AGENT, "b");
+        List<String> all = new ArrayList<>();
+        headers.getAll(RawMetadataKeys.key("user-agent")).forEach(value -> all.add(new String(value, StandardCharsets.US_ASCII)));
+        assertEquals(List.of("a", "b"), all);
+    }
+
+    @Test
+    void comparesIgnoringAsciiCase() {
+        byte[] value = " GZip ".getBytes(StandardCharsets.US_ASCII);
+        byte[] gzip = "gzip".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(RawMetadataKeys.equalsIgnoreCase(value, 1, 5, gzip));
+        assertFalse(RawMetadataKeys.equalsIgnoreCase(value, 0, 5, gzip));
+    }
+}
@@ -0,0 +1,71 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ReplyCacheTest {
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Test
+    void servesRepeatedRequestsFromCache() {
+        ReplyCache cache = enabled();
+        HelloRequest request = HelloRequest.newBuilder().setName("Neo").build();
+
+        HelloReply first = cache.get("m", request, this::greet);
+        HelloReply second = cache.get("m", HelloRequest.newBuilder().setName("Neo").build(), this::greet);
+
+        assertSame(first, second);
+        assertEquals(1, computed.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void keepsCachedRepliesSerialized() {
+        ReplyCache cache = enabled();
+        HelloReply reply = cache.get("m", HelloRequest.newBuilder().setName("Neo").build(), this::greet);
+
+        assertArrayEquals(reply.toByteArray(), cache.serialized(reply));
+        assertNull(cache.serialized(HelloGrpcService.greet("Neo")), "only the cached instance");
+        assertNull(new ReplyCache(TestConfigs.mapping(ReplyCacheConfig.class)).serialized(reply));
+    }
+
+    @Test
+    void keysIncludeTheMethod() {
+        ReplyCache cache = enabled();
+        HelloRequest request = HelloRequest.newBuilder().setName("Neo").build();
+
+        cache.get("a", request, this::greet);
+        cache.get("b", request, this::greet);
+
+        assertEquals(2, computed.get());
+    }
+
+    @Test
+    void computesEveryTimeByDefault() {
+        ReplyCache cache = new ReplyCache(TestConfigs.mapping(ReplyCacheConfig.class));
+        HelloRequest request = HelloRequest.newBuilder().setName("Neo").build();
+
+        cache.get("m", request, this::greet);
+        cache.get("m", request, this::greet);
+
+        assertEquals(2, computed.get());
+    }
+
+    private static ReplyCache enabled() {
+        return new ReplyCache(TestConfigs.mapping(ReplyCacheConfig.class, Map.of("acme.grpc.reply-cache.enabled", "true")));
+    }
+
+    private HelloReply greet(HelloRequest request) {
+        computed.incrementAndGet();
+        return HelloGrpcService.greet(request.getName());
+    }
+}
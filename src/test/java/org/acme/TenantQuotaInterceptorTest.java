@@ -0,0 +1,160 @@
+package org.acme;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TenantQuotaInterceptorTest {
+
+    private static final Metadata.Key<String> TENANT = Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER);
+    private static final ServerCallHandler<HelloRequest, HelloReply> NEVER_CLOSES = (call, headers) -> new ServerCall.Listener<>() {
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void limitsRatePerTenantWithBurst() {
+        TenantQuotas quotas = new TenantQuotas(config(Map.of("acme.grpc.tenant-quota.rate", "10",
+                "acme.grpc.tenant-quota.burst", "5", "acme.grpc.tenant-quota.max-concurrent", "0")));
+        TenantQuotas.Tenant noisy = quotas.tenant("noisy");
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(TenantQuotas.ALLOWED, quotas.tryAcquire(noisy, now));
+        }
+        assertEquals(TenantQuotas.OVER_RATE, quotas.tryAcquire(noisy, now));
+        assertTrue(noisy.retryAfterNanos(now) > 0);
+        assertEquals(TenantQuotas.ALLOWED, quotas.tryAcquire(quotas.tenant("quiet"), now));
+        assertEquals(TenantQuotas.ALLOWED, quotas.tryAcquire(noisy, now + TimeUnit.MILLISECONDS.toNanos(100)));
+        assertEquals(1, quotas.overRate());
+    }
+
+    @Test
+    void limitsConcurrencyUntilCallsClose() {
+        TenantQuotaInterceptor interceptor = interceptor(Map.of("acme.grpc.tenant-quota.max-concurrent", "2"));
+
+        assertNull(call(interceptor, "acme", NEVER_CLOSES));
+        assertNull(call(interceptor, "acme", NEVER_CLOSES));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, call(interceptor, "acme", NEVER_CLOSES).getCode());
+        assertNull(call(interceptor, "other", NEVER_CLOSES));
+    }
+
+    @Test
+    void releasesOnClose() {
+        TenantQuotaInterceptor interceptor = interceptor(Map.of("acme.grpc.tenant-quota.max-concurrent", "1"));
+        ServerCallHandler<HelloRequest, HelloReply> closes = (call, headers) -> {
+            call.close(Status.OK, new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        };
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Status.Code.OK, call(interceptor, "acme", closes).getCode());
+        }
+    }
+
+    @Test
+    void leavesCallsWithoutTenantAlone() {
+        TenantQuotaInterceptor interceptor = interceptor(Map.of("acme.grpc.tenant-quota.max-concurrent", "1"));
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(call(interceptor, null, NEVER_CLOSES));
+        }
+    }
+
+    @Test
+    void keepsTenantsEvictedMidCall() {
+        AtomicLong ticker = new AtomicLong();
+        TenantQuotas quotas = new TenantQuotas(config(Map.of("acme.grpc.tenant-quota.max-concurrent", "1",
+                "acme.grpc.tenant-quota.expire-after-access", "1m")), ticker::get);
+        TenantQuotas.Tenant streaming = quotas.tenant("acme");
+        assertEquals(TenantQuotas.ALLOWED, quotas.tryAcquire(streaming, System.nanoTime()));
+
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        quotas.cleanUp();
+        TenantQuotas.Tenant again = quotas.tenant("acme");
+        assertSame(streaming, again, "a tenant with a call in flight is re-attached, not recreated");
+        assertEquals(TenantQuotas.OVER_CONCURRENCY, quotas.tryAcquire(again, System.nanoTime()));
+
+        streaming.release();
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        quotas.cleanUp();
+        assertNotSame(streaming, quotas.tenant("acme"), "an idle tenant is forgotten");
+    }
+
+    @Test
+    void reloadsQuotasInPlace() throws IOException {
+        Path file = dir.resolve("tenants.properties");
+        Files.writeString(file, "acme.max-concurrent=1\n");
+        // reloaded by hand: a watcher could read the file half-written and race the assertions
+        TenantQuotas quotas = new TenantQuotas(TestConfigs.mapping(TenantQuotaConfig.class, Map.of(
+                "acme.grpc.tenant-quota.file", file.toString(),
+                "acme.grpc.tenant-quota.tenants.other.rate", "5")));
+        TenantQuotas.Tenant acme = quotas.tenant("acme");
+        long now = System.nanoTime();
+
+        assertEquals(TenantQuotas.ALLOWED, quotas.tryAcquire(acme, now));
+        assertEquals(TenantQuotas.OVER_CONCURRENCY, quotas.tryAcquire(acme, now));
+
+        Files.writeString(file, "acme.max-concurrent=2\nacme.rate=1000\n");
+        quotas.reload();
+        assertEquals(TenantQuotas.ALLOWED, quotas.tryAcquire(acme, now));
+        assertEquals(2, acme.inFlight());
+        assertEquals(5, quotas.quota("other").rate);
+
+        Files.writeString(file, "acme.max-concurrent=lots\n");
+        quotas.reload();
+        assertEquals(2, quotas.quota("acme").maxConcurrent, "an invalid file keeps the current quotas");
+        quotas.stop();
+    }
+
+    @Test
+    void runsOutsideTheConcurrencyLimiter() {
+        TenantQuotaInterceptor interceptor = interceptor(Map.of());
+        int limiter = new ConcurrencyLimitInterceptor(TestConfigs.mapping(ConcurrencyLimitConfig.class)).getPriority();
+        int deadline = new GrpcDeadlineInterceptor().getPriority();
+
+        assertTrue(interceptor.getPriority() > limiter, "a rejected tenant must not count as a drop of the shared limit");
+        assertTrue(interceptor.getPriority() < deadline, "expired calls are turned away before they use a tenant's quota");
+    }
+
+    private static Status call(TenantQuotaInterceptor interceptor, String tenant, ServerCallHandler<HelloRequest, HelloReply> handler) {
+        Metadata headers = new Metadata();
+        if (tenant != null) {
+            headers.put(TENANT, tenant);
+        }
+        ConcurrencyLimitInterceptorTest.RecordingServerCall call = new ConcurrencyLimitInterceptorTest.RecordingServerCall();
+        interceptor.interceptCall(call, headers, handler);
+        return call.status;
+    }
+
+    private static TenantQuotaInterceptor interceptor(Map<String, String> properties) {
+        TenantQuotaConfig config = config(properties);
+        return new TenantQuotaInterceptor(config, new TenantQuotas(config));
+    }
+
+    private static TenantQuotaConfig config(Map<String, String> properties) {
+        Map<String, String> all = new HashMap<>(properties);
+        all.put("acme.grpc.tenant-quota.enabled", "true");
+        return TestConfigs.mapping(TenantQuotaConfig.class, all);
+    }
+}
@@ -0,0 +1,121 @@
+#!/usr/bin/env bash
+# Measures time to the first successful SayHello and steady-state RSS for the JVM (fast-jar),
+# legacy-jar and native packagings.
+#
+#   ./startup-bench.sh                 # build all three, then measure
+#   SKIP_BUILD=true ./startup-bench.sh # measure what is already in target/
+#   MODES="jvm native" ./startup-bench.sh
+#
+# Needs k6, for the first-RPC probe (k6-first-rpc.js) and the steady-state load; the
+# k6-grpc-load.js variables (RATE, DURATION, ...) are honoured. The probe is started and has parsed
+# hello.proto before the server is, then retries over that one process every RETRY_MS (2), so the
+# time to the first RPC counts the server's startup rather than spawning clients. Each mode is started RUNS times and the median is
+# reported. Results go to target/startup-bench/report.json.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+MODES=${MODES:-jvm legacy-jar native}
+RUNS=${RUNS:-5}
+OUT=${OUT:-target/startup-bench}
+RUNNER=target/code-with-quarkus-1.0.0-SNAPSHOT-runner
+mkdir -p "$OUT"
+
+build() {
+    case $1 in
+        jvm) ./mvnw -B -q package -DskipTests ;;
+        legacy-jar) ./mvnw -B -q package -DskipTests -Dquarkus.package.jar.type=legacy-jar ;;
+        native) ./mvnw -B -q package -DskipTests -Dnative ${NATIVE_ARGS:-} ;;
+    esac
+}
+
+command_for() {
+    case $1 in
+        jvm) echo "java ${JAVA_OPTS:-} -jar target/quarkus-app/quarkus-run.jar" ;;
+        legacy-jar) echo "java ${JAVA_OPTS:-} -jar $RUNNER.jar" ;;
+        native) echo "./$RUNNER" ;;
+    esac
+}
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+rss_kb() {
+    awk '/VmRSS/ { print $2 }' "/proc/$1/status"
+}
+
+# starts k6-first-rpc.js in the background and waits until it is probing; sets probe_pid
+start_probe() {
+    k6 run -q k6-first-rpc.js > "$1" 2>&1 &
+    probe_pid=$!
+    until grep -q PROBING "$1"; do
+        if ! kill -0 "$probe_pid" 2>/dev/null; then
+            echo "first-RPC probe failed, see $1" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+measure() {
+    local mode=$1 cmd
+    cmd=$(command_for "$mode")
+    : > "$OUT/$mode.first-rpc"
+    : > "$OUT/$mode.rss-idle"
+    for run in $(seq 1 "$RUNS"); do
+        local start pid probe_pid first probe_log="$OUT/$mode-$run.probe.log"
+        start_probe "$probe_log"
+        start=$(now_ms)
+        $cmd > "$OUT/$mode-$run.log" 2>&1 &
+        pid=$!
+        while kill -0 "$probe_pid" 2>/dev/null; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                kill "$probe_pid" 2>/dev/null || true
+                echo "$mode exited before serving, see $OUT/$mode-$run.log" >&2
+                exit 1
+            fi
+            sleep 0.01
+        done
+        first=$(grep -o 'FIRST_RPC_MS=[0-9]*' "$probe_log" | cut -d= -f2 || true)
+        if [ -z "$first" ]; then
+            kill "$pid"
+            echo "$mode never answered SayHello, see $OUT/$mode-$run.log and $probe_log" >&2
+            exit 1
+        fi
+        echo $((first - start)) >> "$OUT/$mode.first-rpc"
+        rss_kb "$pid" >> "$OUT/$mode.rss-idle"
+        if [ "$run" -eq "$RUNS" ]; then
+            k6 run -q -e BUILD_ID="$mode" -e SUMMARY_FILE="$OUT/$mode.k6.json" \
+                -e PAYLOAD_SIZES="${PAYLOAD_SIZES:-16}" -e COMPRESSIONS="${COMPRESSIONS:-identity}" \
+                -e CONNECTIONS="${CONNECTIONS:-4}" k6-grpc-load.js > "$OUT/$mode.k6.log" 2>&1 || true
+            rss_kb "$pid" > "$OUT/$mode.rss-steady"
+        fi
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+    done
+}
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+    for mode in $MODES; do
+        build "$mode"
+    done
+fi
+
+printf '%-12s %16s %14s %16s\n' mode first-rpc-ms idle-rss-mb steady-rss-mb
+echo "{" > "$OUT/report.json"
+separator=""
+for mode in $MODES; do
+    measure "$mode"
+    first=$(median < "$OUT/$mode.first-rpc")
+    idle=$(median < "$OUT/$mode.rss-idle")
+    steady=$(cat "$OUT/$mode.rss-steady")
+    printf '%-12s %16d %14d %16d\n' "$mode" "$first" $((idle / 1024)) $((steady / 1024))
+    printf '%s  "%s": {"firstRpcMillis": %d, "idleRssKb": %d, "steadyRssKb": %d}' \
+        "$separator" "$mode" "$first" "$idle" "$steady" >> "$OUT/report.json"
+    separator=$',\n'
+done
+printf '\n}\n' >> "$OUT/report.json"
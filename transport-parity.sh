@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Runs the same k6 SayHello load against the shared Vert.x HTTP server and the separate gRPC
+# server, then compares the two summaries.
+#
+#   ./mvnw package && ./transport-parity.sh
+#
+# Both modes listen on port 9000. Extra arguments are passed to the JVM of both runs, e.g.
+#   ./transport-parity.sh -Dacme.grpc.transport.max-concurrent-streams=1000
+# and the k6-grpc-load.js variables (RATE, PAYLOAD_SIZES, ...) are honoured.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+APP=${APP:-target/quarkus-app/quarkus-run.jar}
+OUT=${OUT:-target/transport-parity}
+mkdir -p "$OUT"
+
+run_mode() {
+    local name=$1
+    shift
+    java "$@" -jar "$APP" > "$OUT/$name.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+    for _ in $(seq 1 100); do
+        if grep -q "started in" "$OUT/$name.log"; then
+            break
+        fi
+        sleep 0.2
+    done
+    k6 run -e BUILD_ID="$name" -e SUMMARY_FILE="$OUT/$name.json" k6-grpc-load.js || true
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+run_mode shared -Dquarkus.grpc.server.use-separate-server=false -Dquarkus.http.port=9000 "$@"
+run_mode separate -Dquarkus.grpc.server.use-separate-server=true -Dquarkus.grpc.server.port=9000 -Dquarkus.http.port=8080 "$@"
+
+./k6-compare.sh "$OUT/shared.json" "$OUT/separate.json" "${MAX_REGRESSION:-10}"